@@ -0,0 +1,64 @@
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.observation.web.servlet.WebMvcObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Stand-in for the app when MySQL, Firestore or GitHub are not available. It runs the same
+ * Spring Boot, Tomcat and actuator versions, serves GET /api/github/repositories by
+ * sleeping for stub.delay-ms (200 by default) to mimic the GitHub call, and honours
+ * spring.threads.virtual.enabled. It isolates what the thread mode changes.
+ *
+ * From the repository root, on Java 21:
+ *   ./mvnw -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   javac -proc:none -cp "$(cat target/cp.txt)" -d target/bench bench/BlockingStubServer.java
+ *   java -cp "target/bench:$(cat target/cp.txt)" -Dstub.delay-ms=1000 BlockingStubServer \
+ *       --management.endpoints.web.exposure.include=metrics --spring.threads.virtual.enabled=true
+ */
+@SpringBootConfiguration(proxyBeanMethods = false)
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, ServletWebServerFactoryAutoConfiguration.class,
+        EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+        TaskExecutionAutoConfiguration.class, EndpointAutoConfiguration.class, WebEndpointAutoConfiguration.class,
+        MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class, MetricsEndpointAutoConfiguration.class,
+        ObservationAutoConfiguration.class, WebMvcObservationAutoConfiguration.class,
+        ManagementContextAutoConfiguration.class, ServletManagementContextAutoConfiguration.class})
+public class BlockingStubServer {
+
+    @Bean
+    RouterFunction<ServerResponse> routes() {
+        long delay = Long.getLong("stub.delay-ms", 200);
+        return RouterFunctions.route()
+                .GET("/api/github/repositories", request -> {
+                    Thread.sleep(delay);
+                    return ServerResponse.ok().body("[]");
+                })
+                .build();
+    }
+
+    public static void main(String[] args) {
+        SpringApplication.run(BlockingStubServer.class, args);
+    }
+}
@@ -0,0 +1,131 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load generator for comparing platform and virtual thread modes. Keeps a fixed number
+ * of requests outstanding against one endpoint and reports client latency percentiles
+ * plus the highest number of requests the server had in flight at once, read from the
+ * http.server.requests.active actuator metric.
+ *
+ * Run from the repository root against a running instance:
+ *   java bench/VirtualThreadBenchmark.java --cookie github-auth-jwt=... [--url ...]
+ *       [--concurrency 1000] [--requests 10000] [--base http://localhost:8080]
+ */
+public class VirtualThreadBenchmark {
+
+    private static final Pattern ACTIVE_TASKS = Pattern.compile(
+            "\"statistic\"\\s*:\\s*\"ACTIVE_TASKS\"\\s*,\\s*\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String base = options.getOrDefault("base", "http://localhost:8080");
+        String url = options.getOrDefault("url", base + "/api/github/repositories");
+        String cookie = options.get("cookie");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "10000"));
+        if (cookie == null) {
+            System.err.println("--cookie <name>=<jwt> is required, copy it from a logged-in browser session");
+            System.exit(1);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        HttpRequest activeMetric = HttpRequest.newBuilder(URI.create(base + "/actuator/metrics/http.server.requests.active"))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        // Sample the server-side in-flight count while the load runs
+        AtomicLong maxActive = new AtomicLong(-1);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                Matcher matcher = ACTIVE_TASKS.matcher(client.send(activeMetric, HttpResponse.BodyHandlers.ofString()).body());
+                if (matcher.find())
+                    maxActive.accumulateAndGet((long) Double.parseDouble(matcher.group(1)), Math::max);
+            } catch (Exception e) {
+                // Metric sampling is best effort, the load keeps running
+            }
+        }, 0, 50, TimeUnit.MILLISECONDS);
+
+        Semaphore outstanding = new Semaphore(concurrency);
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>(requests));
+        Map<Integer, AtomicInteger> statuses = new HashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<?>> inFlight = Collections.synchronizedList(new ArrayList<>());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            outstanding.acquire();
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latenciesMicros.add((System.nanoTime() - sent) / 1_000);
+                        if (error != null) {
+                            failures.incrementAndGet();
+                        } else {
+                            synchronized (statuses) {
+                                statuses.computeIfAbsent(response.statusCode(), code -> new AtomicInteger()).incrementAndGet();
+                            }
+                        }
+                        outstanding.release();
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        System.out.printf("url                 %s%n", url);
+        System.out.printf("client concurrency  %d%n", concurrency);
+        System.out.printf("requests            %d in %.1fs (%.0f req/s)%n", requests, elapsedSeconds, requests / elapsedSeconds);
+        System.out.printf("statuses            %s, %d transport failures%n", statuses, failures.get());
+        System.out.printf("max server in-flight %s%n", maxActive.get() < 0 ? "unavailable" : maxActive.get());
+        System.out.printf("latency ms          p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+        System.exit(0);
+    }
+
+    private static double percentile(List<Long> sortedMicros, double percentile) {
+        if (sortedMicros.isEmpty())
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * sortedMicros.size()) - 1;
+        return sortedMicros.get(Math.max(0, index)) / 1000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.oauth.config;
+
+import java.io.Serializable;
+
+// A message sent to every other instance listening on the topic
+public record Broadcast(String origin, String topic, String message) implements Serializable {
+}
@@ -0,0 +1,38 @@
+package com.github.oauth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Spring caches are two-level: a per-instance Caffeine cache in front of the shared tier
+ * selected by {@code app.cache.shared}, {@code local} by default or {@code redis} (see
+ * RedisCacheConfig and the {@code redis} profile).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared", havingValue = "local", matchIfMissing = true)
+    public InMemorySharedCacheTier sharedCacheTier(@Value("${app.cache.max-size:100000}") long maxSize,
+            @Value("${app.cache.ttl:10m}") Duration ttl) {
+        return new InMemorySharedCacheTier(maxSize, ttl);
+    }
+
+    // Local copies expire sooner than shared ones, bounding staleness if an invalidation is lost
+    @Bean
+    public CacheManager cacheManager(SharedCacheTier sharedCacheTier,
+            @Value("${app.cache.max-size:100000}") long maxSize,
+            @Value("${app.cache.local-ttl:1m}") Duration localTtl) {
+        // Puts and evictions issued inside a transaction are applied only after it commits,
+        // so a rolled back join never leaves a stale membership entry behind
+        return new TransactionAwareCacheManagerProxy(new TwoLevelCacheManager(sharedCacheTier, maxSize, localTtl));
+    }
+}
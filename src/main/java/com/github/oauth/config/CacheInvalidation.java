@@ -0,0 +1,7 @@
+package com.github.oauth.config;
+
+import java.io.Serializable;
+
+// A null key invalidates every entry of the cache
+public record CacheInvalidation(String origin, String cacheName, String key) implements Serializable {
+}
@@ -0,0 +1,17 @@
+package com.github.oauth.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Best-effort messages to every other instance, for state that is not a cache entry,
+ * such as push events. The shared cache tiers implement it because they already own
+ * the cross-instance channel: Redis pub/sub in multi-node deployments, in-process
+ * otherwise.
+ */
+public interface ClusterBroadcast {
+
+    // Sends a message to the other instances' listeners on the topic, never to this one's
+    void broadcast(String topic, String message);
+
+    void onBroadcast(String topic, Consumer<String> listener);
+}
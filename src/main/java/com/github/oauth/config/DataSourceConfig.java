@@ -0,0 +1,89 @@
+package com.github.oauth.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Separate Hikari pools per workload: "request" for HTTP traffic, "background" for
+ * scheduled jobs, and "replica" when ReplicaDataSourceConfig is active. Each pool is
+ * its own bean so actuator publishes hikaricp.* metrics tagged with the pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("request");
+        return dataSource;
+    }
+
+    // Same database as the primary, sized independently
+    @Bean
+    @ConfigurationProperties("app.datasource.background.hikari")
+    public HikariDataSource backgroundDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("background");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+            ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource(
+                replicaLagMonitor.getIfAvailable(), readYourWritesTracker.getIfAvailable());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(WorkloadRoutingDataSource.Route.PRIMARY, primaryDataSource);
+        targets.put(WorkloadRoutingDataSource.Route.BACKGROUND, backgroundDataSource);
+        replicaDataSource.ifAvailable(replica -> targets.put(WorkloadRoutingDataSource.Route.REPLICA, replica));
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        // Also keeps transactions from holding a pooled connection before their first statement
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Runs @Scheduled jobs on the background pool
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("background-");
+        scheduler.setTaskDecorator(WorkloadRoutingDataSource.BACKGROUND_TASKS);
+        return scheduler;
+    }
+
+    // Virtual thread per job run, capped at the same number of concurrent jobs
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler virtualTaskScheduler(@Value("${app.scheduling.pool-size:2}") int poolSize) {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setVirtualThreads(true);
+        scheduler.setConcurrencyLimit(poolSize);
+        scheduler.setThreadNamePrefix("background-");
+        scheduler.setTaskDecorator(WorkloadRoutingDataSource.BACKGROUND_TASKS);
+        return scheduler;
+    }
+}
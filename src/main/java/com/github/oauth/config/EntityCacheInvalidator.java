@@ -0,0 +1,113 @@
+package com.github.oauth.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the per-instance Hibernate second-level cache coherent across instances. Hibernate
+ * already updates the local regions on commit; this publishes the IDs of cached entities
+ * that were updated or deleted, or whose cached collections changed, and evicts the entity
+ * and its collections when another instance reports such a write.
+ */
+@Component
+public class EntityCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener {
+
+    private static final String CACHE_PREFIX = "entity:";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final SharedCacheTier sharedCacheTier;
+
+    public EntityCacheInvalidator(EntityManagerFactory entityManagerFactory, SharedCacheTier sharedCacheTier) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.sharedCacheTier = sharedCacheTier;
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        sharedCacheTier.subscribe(invalidation -> {
+            if (invalidation.cacheName().startsWith(CACHE_PREFIX))
+                evictLocal(invalidation.cacheName().substring(CACHE_PREFIX.length()), invalidation.key());
+        });
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getPersister().canWriteToCache())
+            publishAfterCommit(event.getSession(), event.getPersister().getEntityName(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getPersister().canWriteToCache())
+            publishAfterCommit(event.getSession(), event.getPersister().getEntityName(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    // Only the local listeners matter; post-commit handling is done through the action queue
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // For writes that bypass the session: evicts the entity here and on every other instance
+    public void evict(Class<?> entityClass, Object id) {
+        String entityName = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getEntityName();
+        evictLocal(entityName, id.toString());
+        sharedCacheTier.publish(CACHE_PREFIX + entityName, id.toString());
+    }
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (role != null && ownerId != null
+                && sessionFactory.getMappingMetamodel().getCollectionDescriptor(role).hasCache())
+            publishAfterCommit(event.getSession(), event.getAffectedOwnerEntityName(), ownerId);
+    }
+
+    private void publishAfterCommit(EventSource session, String entityName, Object id) {
+        session.getActionQueue().registerProcess((success, s) -> {
+            if (success)
+                sharedCacheTier.publish(CACHE_PREFIX + entityName, id.toString());
+        });
+    }
+
+    private void evictLocal(String entityName, String key) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(entityName);
+        if (persister == null || key == null)
+            return;
+        CacheImplementor cache = sessionFactory.getCache();
+        Object id = persister.getIdentifierMapping().getJavaType().fromString(key);
+        cache.evictEntityData(entityName, id);
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+            if (collection.hasCache() && collection.getOwnerEntityPersister() == persister)
+                cache.evictCollectionData(collection.getRole(), id);
+        });
+    }
+}
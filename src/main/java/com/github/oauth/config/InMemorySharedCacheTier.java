@@ -0,0 +1,101 @@
+package com.github.oauth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the Redis tier, used for single-instance runs. {@link #forkNode()}
+ * returns another instance view over the same store and channel, so two cache managers
+ * built on one tier behave like two application nodes sharing Redis.
+ */
+public class InMemorySharedCacheTier implements SharedCacheTier, ClusterBroadcast {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long maxSize;
+    private final Duration ttl;
+    private final Map<String, Cache<String, Object>> caches;
+    private final List<InMemorySharedCacheTier> nodes;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> broadcastListeners = new ConcurrentHashMap<>();
+
+    public InMemorySharedCacheTier(long maxSize, Duration ttl) {
+        this(maxSize, ttl, new ConcurrentHashMap<>(), new CopyOnWriteArrayList<>());
+    }
+
+    private InMemorySharedCacheTier(long maxSize, Duration ttl, Map<String, Cache<String, Object>> caches,
+            List<InMemorySharedCacheTier> nodes) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.caches = caches;
+        this.nodes = nodes;
+        nodes.add(this);
+    }
+
+    public InMemorySharedCacheTier forkNode() {
+        return new InMemorySharedCacheTier(maxSize, ttl, caches, nodes);
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        return cache == null ? null : cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value) {
+        caches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build())
+                .put(key, value);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache != null)
+            cache.invalidate(key);
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache != null)
+            cache.invalidateAll();
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation(nodeId, cacheName, key);
+        for (InMemorySharedCacheTier node : nodes) {
+            if (node != this)
+                node.listeners.forEach(listener -> listener.accept(invalidation));
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String message) {
+        for (InMemorySharedCacheTier node : nodes) {
+            if (node != this)
+                node.broadcastListeners.getOrDefault(topic, List.of()).forEach(listener -> listener.accept(message));
+        }
+    }
+
+    @Override
+    public void onBroadcast(String topic, Consumer<String> listener) {
+        broadcastListeners.computeIfAbsent(topic, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
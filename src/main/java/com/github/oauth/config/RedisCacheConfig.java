@@ -0,0 +1,51 @@
+package com.github.oauth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * Redis shared cache tier for multi-instance deployments, active with
+ * {@code app.cache.shared=redis}. Connection settings come from {@code spring.data.redis}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.shared", havingValue = "redis")
+public class RedisCacheConfig {
+
+    @Bean
+    public RedisSharedCacheTier sharedCacheTier(RedisConnectionFactory connectionFactory,
+            @Value("${app.cache.ttl:10m}") Duration ttl) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.java());
+        redisTemplate.afterPropertiesSet();
+        return new RedisSharedCacheTier(redisTemplate, ttl);
+    }
+
+    // Invalidations can reload from the database, so they run as background work
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            RedisSharedCacheTier sharedCacheTier, Environment environment) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cache-invalidation-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setTaskDecorator(WorkloadRoutingDataSource.BACKGROUND_TASKS);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(sharedCacheTier, RedisSharedCacheTier.INVALIDATION_TOPIC);
+        container.addMessageListener(sharedCacheTier, RedisSharedCacheTier.BROADCAST_TOPIC);
+        return container;
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.oauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Shared tier on Redis. Entries live under {@code devsync:cache:<cache>:<key>} with the
+ * configured TTL. Invalidations and broadcasts each go out on their own pub/sub channel.
+ * Pub/sub delivery is best effort, which is why local copies also expire on their own.
+ */
+public class RedisSharedCacheTier implements SharedCacheTier, ClusterBroadcast, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedCacheTier.class);
+
+    public static final ChannelTopic INVALIDATION_TOPIC = new ChannelTopic("devsync:cache:invalidation");
+    public static final ChannelTopic BROADCAST_TOPIC = new ChannelTopic("devsync:broadcast");
+
+    private static final String KEY_PREFIX = "devsync:cache:";
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> broadcastListeners = new ConcurrentHashMap<>();
+
+    public RedisSharedCacheTier(RedisTemplate<String, Object> redisTemplate, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        try {
+            return redisTemplate.opsForValue().get(redisKey(cacheName, key));
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache read failed for {}:{}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value) {
+        try {
+            redisTemplate.opsForValue().set(redisKey(cacheName, key), value, ttl);
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache write failed for {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        try {
+            redisTemplate.unlink(redisKey(cacheName, key));
+        } catch (RuntimeException e) {
+            logger.error("Shared cache evict failed for {}:{}, entry stays until it expires", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(redisKey(cacheName, "*"))
+                .count(CLEAR_BATCH_SIZE)
+                .build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == CLEAR_BATCH_SIZE) {
+                    redisTemplate.unlink(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty())
+                redisTemplate.unlink(batch);
+        } catch (RuntimeException e) {
+            logger.error("Shared cache clear failed for {}, entries stay until they expire", cacheName, e);
+        }
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_TOPIC.getTopic(), new CacheInvalidation(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            logger.error("Failed to publish invalidation for {}:{}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String message) {
+        try {
+            redisTemplate.convertAndSend(BROADCAST_TOPIC.getTopic(), new Broadcast(nodeId, topic, message));
+        } catch (RuntimeException e) {
+            logger.error("Failed to broadcast on {}", topic, e);
+        }
+    }
+
+    @Override
+    public void onBroadcast(String topic, Consumer<String> listener) {
+        broadcastListeners.computeIfAbsent(topic, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body instanceof Broadcast broadcast) {
+            if (!nodeId.equals(broadcast.origin()))
+                onBroadcast(broadcast);
+            return;
+        }
+        if (!(body instanceof CacheInvalidation invalidation) || nodeId.equals(invalidation.origin()))
+            return;
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply invalidation {}", invalidation, e);
+            }
+        }
+    }
+
+    private void onBroadcast(Broadcast broadcast) {
+        for (Consumer<String> listener : broadcastListeners.getOrDefault(broadcast.topic(), List.of())) {
+            try {
+                listener.accept(broadcast.message());
+            } catch (RuntimeException e) {
+                logger.error("Failed to handle broadcast on {}", broadcast.topic(), e);
+            }
+        }
+    }
+
+    private static String redisKey(String cacheName, String key) {
+        return KEY_PREFIX + cacheName + ":" + key;
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.oauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLSyntaxErrorException;
+import java.util.List;
+
+/**
+ * Polls the replica's replication delay and takes it out of rotation while it is
+ * unreachable, stopped, or further behind than {@code app.datasource.replica.max-lag-seconds}.
+ * A replica without replication configured (for example a second local MySQL or H2
+ * instance used for testing) counts as zero lag.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagSeconds;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Long lagSeconds = currentLagSeconds();
+            usable = lagSeconds != null && lagSeconds <= maxLagSeconds;
+            if (!usable)
+                logger.warn("Replica lag {}s exceeds {}s, routing reads to primary",
+                        lagSeconds == null ? "unknown" : lagSeconds, maxLagSeconds);
+        } catch (Exception e) {
+            usable = false;
+            logger.warn("Replica unreachable, routing reads to primary: {}", e.getMessage());
+        }
+        if (usable && !replicaUsable)
+            logger.info("Replica back in rotation");
+        replicaUsable = usable;
+    }
+
+    // Null means replication is configured but not running
+    private Long currentLagSeconds() {
+        List<Long> lag;
+        try {
+            lag = replicaJdbcTemplate.query("SHOW REPLICA STATUS",
+                    (rs, rowNum) -> rs.getObject("Seconds_Behind_Source", Long.class));
+        } catch (BadSqlGrammarException e) {
+            if (e.getCause() instanceof SQLSyntaxErrorException) {
+                // Not a MySQL replica; make sure it at least answers
+                replicaJdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                return 0L;
+            }
+            throw e;
+        }
+        return lag.isEmpty() ? 0L : lag.get(0);
+    }
+}
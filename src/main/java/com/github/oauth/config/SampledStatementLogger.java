@@ -0,0 +1,29 @@
+package com.github.oauth.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs a random sample of the SQL Hibernate sends instead of every statement, which is
+ * what show-sql did. Enable the "sql.sample" logger at INFO to see it.
+ */
+public class SampledStatementLogger implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger("sql.sample");
+
+    private final double sampleRate;
+
+    public SampledStatementLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && logger.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate)
+            logger.info("[{}] {}", Thread.currentThread().getName(), sql);
+        return sql;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.oauth.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Cache storage shared by every instance, plus the channel instances use to tell each
+ * other to drop local copies. Redis in multi-node deployments, InMemorySharedCacheTier
+ * otherwise. Lookups return null on a miss, and implementations treat their own
+ * failures as misses so a shared tier outage only costs database reads.
+ */
+public interface SharedCacheTier {
+
+    Object get(String cacheName, String key);
+
+    void put(String cacheName, String key, Object value);
+
+    void evict(String cacheName, String key);
+
+    void clear(String cacheName);
+
+    // Tells the other instances to drop their local copy; a null key means the whole cache
+    void publish(String cacheName, String key);
+
+    // Receives invalidations published by other instances, never this one's own
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,93 @@
+package com.github.oauth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Spring cache backed by a local Caffeine cache in front of the shared tier. Keys are
+ * compared by their string form on both levels. Evictions and clears are published so
+ * other instances drop their local copies. Puts are not, since every value here is a
+ * read-through fill; a changed value is always announced by an eviction.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final SharedCacheTier shared;
+
+    public TwoLevelCache(String name, Cache<String, Object> local, SharedCacheTier shared) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value == null) {
+            value = shared.get(name, localKey);
+            if (value != null)
+                local.put(localKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null)
+            return (T) cached.get();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        shared.put(name, key.toString(), storeValue);
+        local.put(key.toString(), storeValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(name, key.toString());
+        local.invalidate(key.toString());
+        shared.publish(name, key.toString());
+    }
+
+    @Override
+    public void clear() {
+        shared.clear(name);
+        local.invalidateAll();
+        shared.publish(name, null);
+    }
+
+    // Applies an invalidation published by another instance
+    void invalidateLocal(String key) {
+        if (key == null)
+            local.invalidateAll();
+        else
+            local.invalidate(key);
+    }
+}
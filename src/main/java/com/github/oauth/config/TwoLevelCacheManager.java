@@ -0,0 +1,48 @@
+package com.github.oauth.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates a TwoLevelCache per cache name on first use and routes invalidations from
+ * other instances to the matching local cache.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final SharedCacheTier shared;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(SharedCacheTier shared, long localMaxSize, Duration localTtl) {
+        this.shared = shared;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        shared.subscribe(invalidation -> {
+            TwoLevelCache cache = caches.get(invalidation.cacheName());
+            if (cache != null)
+                cache.invalidateLocal(invalidation.key());
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaxSize)
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                shared));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+}
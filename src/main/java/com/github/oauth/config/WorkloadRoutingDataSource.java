@@ -0,0 +1,54 @@
+package com.github.oauth.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the connection pool for each transaction. Background jobs get their own pool so
+ * that a slow poll can never take connections from request threads. Request work in
+ * {@code @Transactional(readOnly = true)} goes to the replica when one is configured,
+ * unless it is lagging or the current user has just written and might not see their
+ * own change. Everything else goes to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so that the lookup happens once the transaction's
+ * read-only flag is known.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA, BACKGROUND
+    }
+
+    private static final ThreadLocal<Boolean> BACKGROUND = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    // Both null when no replica is configured
+    public WorkloadRoutingDataSource(ReplicaLagMonitor replicaLagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    // Marks everything the wrapped task does as background work
+    public static final TaskDecorator BACKGROUND_TASKS = task -> () -> {
+        BACKGROUND.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            BACKGROUND.remove();
+        }
+    };
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (Boolean.TRUE.equals(BACKGROUND.get()))
+            return Route.BACKGROUND;
+        if (replicaLagMonitor != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaLagMonitor.isReplicaUsable()
+                && !readYourWritesTracker.currentUserWroteRecently())
+            return Route.REPLICA;
+        return Route.PRIMARY;
+    }
+}
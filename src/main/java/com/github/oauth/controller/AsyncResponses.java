@@ -0,0 +1,61 @@
+package com.github.oauth.controller;
+
+import com.github.oauth.exception.CapacityExceededException;
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.exception.ResourceNotFound;
+import org.slf4j.Logger;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a controller action that ends in a Firestore future. The servlet thread is released
+ * as soon as the future is returned, and failures, whether thrown up front or completing
+ * the future, map to the same status codes the synchronous endpoints use.
+ */
+final class AsyncResponses {
+
+    private AsyncResponses() {
+    }
+
+    static CompletableFuture<ResponseEntity<?>> respond(Logger logger, String action,
+            Supplier<? extends CompletableFuture<? extends ResponseEntity<?>>> call) {
+        try {
+            return call.get()
+                    .<ResponseEntity<?>>thenApply(response -> response)
+                    .exceptionally(error -> failure(logger, action, error));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failure(logger, action, e));
+        }
+    }
+
+    private static ResponseEntity<?> failure(Logger logger, String action, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            logger.warn("Failed to {}: {}", action, cause.getMessage());
+            return ResponseEntity.status(401).body(cause.getMessage());
+        }
+        if (cause instanceof GeneralException) {
+            logger.warn("Invalid request to {}: {}", action, cause.getMessage());
+            return ResponseEntity.status(400).body(cause.getMessage());
+        }
+        if (cause instanceof ResourceNotFound) {
+            logger.warn("Not found while trying to {}: {}", action, cause.getMessage());
+            return ResponseEntity.status(404).body(cause.getMessage());
+        }
+        if (cause instanceof OptimisticLockingFailureException) {
+            logger.warn("Concurrent update while trying to {}: {}", action, cause.getMessage());
+            return ResponseEntity.status(409).body("Modified by another request, reload and retry");
+        }
+        if (cause instanceof CapacityExceededException) {
+            logger.warn("Overloaded while trying to {}: {}", action, cause.getMessage());
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body(cause.getMessage());
+        }
+        logger.error("Error trying to {}", action, cause);
+        return ResponseEntity.status(500).body("Internal server error");
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.oauth.controller;
+
+import com.github.oauth.exception.CapacityExceededException;
+import com.github.oauth.model.User;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.PushEventHub;
+import com.github.oauth.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamController.class);
+    private static final int MAX_PROJECTS_PER_STREAM = 50;
+
+    private final UserService userService;
+    private final ProjectMembershipService projectMembershipService;
+    private final PushEventHub pushEventHub;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(Authentication authentication,
+            @RequestParam(value = "projectId", required = false) Set<Long> projectIds) {
+        try {
+            User user = userService.getCurrentUser(authentication);
+            Set<Long> watched = projectIds == null ? Set.of() : projectIds;
+            if (watched.size() > MAX_PROJECTS_PER_STREAM)
+                return ResponseEntity.status(400).body("At most " + MAX_PROJECTS_PER_STREAM + " projects per stream");
+            for (Long projectId : watched) {
+                if (!projectMembershipService.isMember(projectId, user.getId()))
+                    return ResponseEntity.status(403).body("You are not a member of project " + projectId);
+            }
+
+            logger.info("Opening event stream for user {} watching projects {}", user.getLogin(), watched);
+            return ResponseEntity.ok(pushEventHub.subscribe(user.getId(), watched));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to open event stream: {}", e.getMessage());
+            return ResponseEntity.status(401).body(e.getMessage());
+        } catch (CapacityExceededException e) {
+            logger.warn("Rejected event stream: {}", e.getMessage());
+            return ResponseEntity.status(503).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error opening event stream", e);
+            return ResponseEntity.status(500).body("Internal server error");
+        }
+    }
+}
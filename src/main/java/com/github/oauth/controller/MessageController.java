@@ -1,5 +1,6 @@
 package com.github.oauth.controller;
 
+import com.github.oauth.exception.GeneralException;
 import com.github.oauth.model.Message;
 import com.github.oauth.model.User;
 import com.github.oauth.service.MessageService;
@@ -12,6 +13,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.controller.AsyncResponses.respond;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -27,43 +31,53 @@ public class MessageController {
     }
 
     @PostMapping("/addMessage")
-    public ResponseEntity<?> addMessage(@RequestBody Message message, Authentication authentication) {
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Unauthorized attempt to add message");
-                return ResponseEntity.status(401).body("Authentication required");
-            }
+    public CompletableFuture<ResponseEntity<?>> addMessage(@RequestBody Message message, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Unauthorized attempt to add message");
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("Authentication required"));
+        }
 
+        return respond(logger, "add message", () -> {
             User user = userService.getCurrentUser(authentication);
-            String result = messageService.addMessage(message, user);
-            logger.info("Message added successfully by user: {}", user.getId());
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            logger.error("Error adding message", e);
-            return ResponseEntity.status(500).body("Failed to add message: " + e.getMessage());
-        }
+            return messageService.addMessage(message, user).thenApply(result -> {
+                logger.info("Message added successfully by user: {}", user.getId());
+                return ResponseEntity.ok(result);
+            });
+        });
     }
 
     @DeleteMapping("/deleteMessage")
-    public ResponseEntity<?> deleteMessage(@RequestBody Map<String, String> request, Authentication authentication) {
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Unauthorized attempt to delete message");
-                return ResponseEntity.status(401).body("Authentication required");
-            }
+    public CompletableFuture<ResponseEntity<?>> deleteMessage(@RequestBody Map<String, String> request, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Unauthorized attempt to delete message");
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("Authentication required"));
+        }
 
+        return respond(logger, "delete message", () -> {
             String messageId = request.get("messageId");
             if (messageId == null) {
-                throw new IllegalArgumentException("Message ID is required");
+                throw new GeneralException("Message ID is required");
             }
 
             User user = userService.getCurrentUser(authentication);
-            String result = messageService.deleteMessage(messageId, user);
-            logger.info("Message deleted successfully by user: {}", user.getId());
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            logger.error("Error deleting message", e);
-            return ResponseEntity.status(500).body("Failed to delete message: " + e.getMessage());
-        }
+            return messageService.deleteMessage(messageId, user).thenApply(result -> {
+                logger.info("Message deleted successfully by user: {}", user.getId());
+                return ResponseEntity.ok(result);
+            });
+        });
+    }
+
+    @GetMapping("/project/{projectId}")
+    public CompletableFuture<ResponseEntity<?>> getProjectMessages(Authentication authentication,
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return respond(logger, "get project messages", () -> {
+            User user = userService.getCurrentUser(authentication);
+            return messageService.getProjectMessages(projectId, cursor, size, user).thenApply(messages -> {
+                logger.info("Retrieved {} messages for project ID: {}", messages.getContent().size(), projectId);
+                return ResponseEntity.ok(messages);
+            });
+        });
     }
-} 
\ No newline at end of file
+}
@@ -7,11 +7,16 @@ import com.github.oauth.service.UserService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.controller.AsyncResponses.respond;
+
 @RestController
 @RequestMapping("api/notification")
 
@@ -27,19 +32,14 @@ public class NotificationController {
     }
 
     @PostMapping("/join-request")
-    public ResponseEntity<?> addJoinRequest(Authentication authentication, @RequestBody ProjectJoinRequest request) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> addJoinRequest(Authentication authentication, @RequestBody ProjectJoinRequest request) {
+        return respond(logger, "add join request", () -> {
             User user = userService.getCurrentUser(authentication);
-            String response = notificationService.addRequest(request, user);
-            logger.info("Join request added successfully by user: {}", user.getLogin());
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to add join request: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error adding join request", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return notificationService.addRequest(request, user).thenApply(response -> {
+                logger.info("Join request added successfully by user: {}", user.getLogin());
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            });
+        });
     }
 
     @PutMapping("/update-request")
@@ -52,6 +52,9 @@ public class NotificationController {
         } catch (IllegalArgumentException e) {
             logger.warn("Failed to update join request: {}", e.getMessage());
             return ResponseEntity.status(401).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Concurrent update of project {}: {}", request.getProjectId(), e.getMessage());
+            return ResponseEntity.status(409).body("Project was modified by another request, please retry");
         } catch (Exception e) {
             logger.error("Error updating join request", e);
             return ResponseEntity.status(500).body("Internal server error");
@@ -59,34 +62,24 @@ public class NotificationController {
     }
 
     @DeleteMapping("/seen-request/{userId}/{projectId}")
-    public ResponseEntity<?> seenRequest(Authentication authentication, @PathVariable Long userId, @PathVariable Long projectId) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> seenRequest(Authentication authentication, @PathVariable Long userId, @PathVariable Long projectId) {
+        return respond(logger, "mark join request as seen", () -> {
             User user = userService.getCurrentUser(authentication);
-            String response = notificationService.deleteRequest(userId, projectId, user);
-            logger.info("Join request marked as seen by user: {}", user.getLogin());
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to mark join request as seen: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error marking join request as seen", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return notificationService.deleteRequest(userId, projectId, user).thenApply(response -> {
+                logger.info("Join request marked as seen by user: {}", user.getLogin());
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            });
+        });
     }
 
     @DeleteMapping("/own-request/{projectId}")
-    public ResponseEntity<?> deleteOwnRequest(Authentication authentication, @PathVariable Long projectId) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> deleteOwnRequest(Authentication authentication, @PathVariable Long projectId) {
+        return respond(logger, "delete own join request", () -> {
             User user = userService.getCurrentUser(authentication);
-            String response = notificationService.deleteOwnRequest(projectId, user);
-            logger.info("User {} deleted their own pending join request for project {}", user.getLogin(), projectId);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to delete own join request: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error deleting own join request", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return notificationService.deleteOwnRequest(projectId, user).thenApply(response -> {
+                logger.info("User {} deleted their own pending join request for project {}", user.getLogin(), projectId);
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            });
+        });
     }
 }
@@ -1,7 +1,10 @@
 package com.github.oauth.controller;
 
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
 import com.github.oauth.payload.ProjectDTO;
+import com.github.oauth.payload.ProjectRecommendationDTO;
+import com.github.oauth.payload.TechStackPatchDTO;
 import com.github.oauth.payload.UserDTO;
 import com.github.oauth.service.ProjectService;
 import com.github.oauth.service.UserService;
@@ -9,11 +12,13 @@ import lombok.RequiredArgsConstructor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import com.github.oauth.exception.GeneralException;
 import com.github.oauth.exception.ResourceNotFound;
 import java.util.List;
 import java.util.Map;
@@ -70,12 +75,41 @@ public class ProjectController {
         } catch (IllegalArgumentException e) {
             logger.warn("Failed to update project: {}", e.getMessage());
             return ResponseEntity.status(401).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Concurrent update of project {}: {}", projectDTO.getProjectId(), e.getMessage());
+            return ResponseEntity.status(409).body("Project was modified by another request, reload and retry");
         } catch (Exception e) {
             logger.error("Error updating project", e);
             return ResponseEntity.status(500).body("Internal server error");
         }
     }
 
+    @PatchMapping("/{projectId}/techStack")
+    public ResponseEntity<?> updateProjectTechStack(Authentication authentication, @PathVariable Long projectId,
+            @RequestBody TechStackPatchDTO patch) {
+        try {
+            User user = userService.getCurrentUser(authentication);
+            ProjectDTO updatedProject = projectService.updateTechStack(projectId, patch, user);
+            logger.info("Project tech stack updated by user: {}", user.getLogin());
+            return ResponseEntity.ok(updatedProject);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to update project tech stack: {}", e.getMessage());
+            return ResponseEntity.status(401).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Concurrent update of project {}: {}", projectId, e.getMessage());
+            return ResponseEntity.status(409).body("Project was modified by another request, reload and retry");
+        } catch (GeneralException e) {
+            logger.warn("Invalid tech stack update: {}", e.getMessage());
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (ResourceNotFound e) {
+            logger.warn("Project or tech not found: {}", e.getMessage());
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error updating project tech stack", e);
+            return ResponseEntity.status(500).body("Internal server error");
+        }
+    }
+
     @DeleteMapping("/delete/{projectId}")
     public ResponseEntity<?> deleteProject(Authentication authentication, @PathVariable Long projectId) {
         try {
@@ -115,6 +149,77 @@ public class ProjectController {
         }
     }
 
+    @PostMapping("/search/page")
+    public ResponseEntity<?> searchProjectsByTechStackPage(Authentication authentication,
+            @RequestBody Set<String> techStack,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            // Validate authentication
+            userService.getCurrentUser(authentication);
+
+            CursorPage<ProjectDTO> page = projectService.searchProjectsByTechStack(techStack, cursor, size);
+            logger.info("Found {} projects on search page for tech stack: {}", page.getContent().size(), techStack);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to search projects: {}", e.getMessage());
+            return ResponseEntity.status(401).body(e.getMessage());
+        } catch (GeneralException e) {
+            logger.warn("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (ResourceNotFound e) {
+            logger.warn("Tech not found: {}", e.getMessage());
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error searching projects", e);
+            return ResponseEntity.status(500).body("Internal server error");
+        }
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<?> searchProjectsByText(Authentication authentication,
+            @RequestParam("q") String query,
+            @RequestParam(value = "tech", required = false) Set<String> techStack,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            // Validate authentication
+            userService.getCurrentUser(authentication);
+
+            CursorPage<ProjectDTO> page = projectService.searchProjectsByText(query, techStack, cursor, size);
+            logger.info("Found {} projects on text search page for query: {}", page.getContent().size(), query);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to search projects: {}", e.getMessage());
+            return ResponseEntity.status(401).body(e.getMessage());
+        } catch (GeneralException e) {
+            logger.warn("Invalid text search request: {}", e.getMessage());
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (ResourceNotFound e) {
+            logger.warn("Tech not found: {}", e.getMessage());
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error searching projects by text", e);
+            return ResponseEntity.status(500).body("Internal server error");
+        }
+    }
+
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedProjects(Authentication authentication) {
+        try {
+            User user = userService.getCurrentUser(authentication);
+            List<ProjectRecommendationDTO> recommendations = projectService.getRecommendedProjects(user);
+            logger.info("Retrieved {} recommended projects for user: {}", recommendations.size(), user.getLogin());
+            return ResponseEntity.ok(recommendations);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to get recommended projects: {}", e.getMessage());
+            return ResponseEntity.status(401).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error getting recommended projects", e);
+            return ResponseEntity.status(500).body("Internal server error");
+        }
+    }
+
     @GetMapping("/{projectId}")
     public ResponseEntity<?> getProjectById(Authentication authentication, @PathVariable Long projectId) {
         try {
@@ -138,18 +243,23 @@ public class ProjectController {
     }
 
     @GetMapping("/{projectId}/members")
-    public ResponseEntity<?> getProjectMembers(Authentication authentication, @PathVariable Long projectId) {
+    public ResponseEntity<?> getProjectMembers(Authentication authentication, @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
             // Validate authentication
             userService.getCurrentUser(authentication);
 
             // Get project members
-            List<UserDTO> members = projectService.getProjectMembers(projectId);
-            logger.info("Retrieved {} members for project ID: {}", members.size(), projectId);
+            CursorPage<UserDTO> members = projectService.getProjectMembers(projectId, cursor, size);
+            logger.info("Retrieved {} members for project ID: {}", members.getContent().size(), projectId);
             return ResponseEntity.ok(members);
         } catch (IllegalArgumentException e) {
             logger.warn("Failed to get project members: {}", e.getMessage());
             return ResponseEntity.status(401).body(e.getMessage());
+        } catch (GeneralException e) {
+            logger.warn("Invalid project members request: {}", e.getMessage());
+            return ResponseEntity.status(400).body(e.getMessage());
         } catch (ResourceNotFound e) {
             logger.warn("Project not found: {}", e.getMessage());
             return ResponseEntity.status(404).body(e.getMessage());
@@ -13,6 +13,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.controller.AsyncResponses.respond;
 
 @RestController
 @RequestMapping("api/task")
@@ -24,72 +27,91 @@ public class TaskController {
     private final UserService userService;
 
     @PostMapping("/assign")
-    public ResponseEntity<?> assignTask(Authentication authentication, @RequestBody Task task) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> assignTask(Authentication authentication, @RequestBody Task task) {
+        return respond(logger, "assign task", () -> {
             User creator = userService.getCurrentUser(authentication);
-            Task assignedTask = taskService.assignTask(task, creator);
-            logger.info("Task assigned successfully by user: {}", creator.getLogin());
-            return new ResponseEntity<>(assignedTask, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to assign task: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error assigning task", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return taskService.assignTask(task, creator).thenApply(assignedTask -> {
+                logger.info("Task assigned successfully by user: {}", creator.getLogin());
+                return new ResponseEntity<>(assignedTask, HttpStatus.OK);
+            });
+        });
     }
 
     @PutMapping("/status")
-    public ResponseEntity<?> updateTaskStatus(Authentication authentication, @RequestBody Task task) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> updateTaskStatus(Authentication authentication, @RequestBody Task task) {
+        return respond(logger, "update task status", () -> {
             User assignedUser = userService.getCurrentUser(authentication);
-            Task updatedTask = taskService.updateTaskStatus(task, assignedUser);
-            logger.info("Task status updated successfully by user: {}", assignedUser.getLogin());
-            return new ResponseEntity<>(updatedTask, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to update task status: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error updating task status", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return taskService.updateTaskStatus(task, assignedUser).thenApply(updatedTask -> {
+                logger.info("Task status updated successfully by user: {}", assignedUser.getLogin());
+                return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+            });
+        });
     }
 
     @PutMapping("/completion")
-    public ResponseEntity<?> updateTaskCompletion(Authentication authentication, @RequestBody Task task) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> updateTaskCompletion(Authentication authentication, @RequestBody Task task) {
+        return respond(logger, "update task completion", () -> {
             User creator = userService.getCurrentUser(authentication);
-            Task updatedTask = taskService.updateTaskCompletion(task, creator);
-            logger.info("Task completion updated successfully by creator: {}", creator.getLogin());
-            return new ResponseEntity<>(updatedTask, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to update task completion: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error updating task completion", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return taskService.updateTaskCompletion(task, creator).thenApply(updatedTask -> {
+                logger.info("Task completion updated successfully by creator: {}", creator.getLogin());
+                return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+            });
+        });
+    }
+
+    @GetMapping("/project/{projectId}")
+    public CompletableFuture<ResponseEntity<?>> getProjectTasks(Authentication authentication, @PathVariable Long projectId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return respond(logger, "get project tasks", () -> {
+            User user = userService.getCurrentUser(authentication);
+            return taskService.getProjectTasks(projectId, status, cursor, size, user).thenApply(tasks -> {
+                logger.info("Retrieved {} tasks for project ID: {}", tasks.getContent().size(), projectId);
+                return ResponseEntity.ok(tasks);
+            });
+        });
+    }
+
+    @GetMapping("/assigned")
+    public CompletableFuture<ResponseEntity<?>> getAssignedTasks(Authentication authentication,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return respond(logger, "get assigned tasks", () -> {
+            User user = userService.getCurrentUser(authentication);
+            return taskService.getAssignedTasks(user, status, cursor, size).thenApply(tasks -> {
+                logger.info("Retrieved {} assigned tasks for user: {}", tasks.getContent().size(), user.getLogin());
+                return ResponseEntity.ok(tasks);
+            });
+        });
+    }
+
+    @GetMapping("/{taskId}")
+    public CompletableFuture<ResponseEntity<?>> getTask(Authentication authentication, @PathVariable String taskId) {
+        return respond(logger, "get task", () -> {
+            User user = userService.getCurrentUser(authentication);
+            return taskService.getTask(taskId, user).thenApply(task -> {
+                logger.info("Retrieved task with ID: {}", taskId);
+                return ResponseEntity.ok(task);
+            });
+        });
     }
 
     @DeleteMapping("/delete")
-    public ResponseEntity<?> deleteTask(Authentication authentication, @RequestBody Map<String, String> request) {
-        try {
+    public CompletableFuture<ResponseEntity<?>> deleteTask(Authentication authentication, @RequestBody Map<String, String> request) {
+        return respond(logger, "delete task", () -> {
             String taskId = request.get("taskId");
             logger.info("Deleting task with ID: {}", taskId);
             if (taskId == null) {
                 throw new IllegalArgumentException("Task ID is required");
             }
-            
+
             User user = userService.getCurrentUser(authentication);
-            taskService.deleteTask(taskId, user);
-            logger.info("Task deleted successfully by user: {}", user.getLogin());
-            return new ResponseEntity<>("Task deleted successfully", HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to delete task: {}", e.getMessage());
-            return ResponseEntity.status(401).body(e.getMessage());
-        } catch (Exception e) {
-            logger.error("Error deleting task", e);
-            return ResponseEntity.status(500).body("Internal server error");
-        }
+            return taskService.deleteTask(taskId, user).thenApply(deleted -> {
+                logger.info("Task deleted successfully by user: {}", user.getLogin());
+                return new ResponseEntity<>("Task deleted successfully", HttpStatus.OK);
+            });
+        });
     }
 }
@@ -0,0 +1,8 @@
+package com.github.oauth.exception;
+
+// A bounded buffer or connection limit is full; the client should retry shortly
+public class CapacityExceededException extends RuntimeException {
+    public CapacityExceededException(String message) {
+      super(message);
+    }
+  }
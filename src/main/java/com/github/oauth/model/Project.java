@@ -14,7 +14,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = @Index(name = "idx_projects_project_name", columnList = "project_name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +38,11 @@ public class Project {
     @Column(name = "github_repository", nullable = false)
     private String githubRepository;
 
+    // Optimistic lock; added by V3__project_version.sql with existing rows starting at 0
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @Enumerated(EnumType.ORDINAL)
     @Column(name = "project_status" , nullable = false)
     private ProjectStatus projectStatus;
@@ -52,19 +57,19 @@ public class Project {
     @JoinTable(
             name = "project_members",
             joinColumns = @JoinColumn(name = "project_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_project_members_user_project", columnList = "user_id, project_id")
     )
     private Set<User> members;
 
 
-    @ManyToMany(
-            cascade = {CascadeType.MERGE, CascadeType.PERSIST},
-            fetch = FetchType.EAGER
-    )
+    // Techs are shared reference data resolved through TechDictionary, so nothing cascades to them
+    @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "project_tech_stack",
             joinColumns = @JoinColumn(name = "project_id"),
-            inverseJoinColumns = @JoinColumn(name = "tech_id")
+            inverseJoinColumns = @JoinColumn(name = "tech_id"),
+            indexes = @Index(name = "idx_project_tech_stack_tech_project", columnList = "tech_id, project_id")
     )
     private Set<Tech> techStack = new HashSet<>();
 
@@ -1,22 +1,28 @@
 package com.github.oauth.model;
 
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
 import lombok.Data;
 
 
 @Data
 public class Task {
     private String id;
+    // ID the task had before the move to ULIDs, unset for tasks created since
+    private String legacyId;
     private Long assignedTo;
     private Long projectId;
     private String details;
-    private String status;
+    private TaskStatus status;
     private String pullRequestUrl;
     private Timestamp lastChecked;
     private Timestamp createdAt;
+    // When the task entered its current status; set by the server on every transition
+    @ServerTimestamp
+    private Timestamp statusChangedAt;
 
     public Task() {
-        this.status = "REQUESTED";
+        this.status = TaskStatus.REQUESTED;
         this.createdAt = Timestamp.now();
     }
 }
@@ -0,0 +1,41 @@
+package com.github.oauth.model;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Task lifecycle. The assignee accepts or rejects a request and submits the work; the
+ * project creator, or the PR poller once the linked pull request is merged or closed,
+ * gives the verdict. COMPLETED, REJECTED and REQUEST_REJECTED are final.
+ */
+public enum TaskStatus {
+    REQUESTED,
+    PENDING,
+    REQUEST_COMPLETE,
+    COMPLETED,
+    REJECTED,
+    REQUEST_REJECTED;
+
+    private static final Map<TaskStatus, Set<TaskStatus>> TRANSITIONS = new EnumMap<>(TaskStatus.class);
+
+    static {
+        TRANSITIONS.put(REQUESTED, EnumSet.of(PENDING, REJECTED));
+        TRANSITIONS.put(PENDING, EnumSet.of(REQUEST_COMPLETE, REJECTED));
+        TRANSITIONS.put(REQUEST_COMPLETE, EnumSet.of(COMPLETED, REQUEST_REJECTED));
+    }
+
+    public boolean canTransitionTo(TaskStatus next) {
+        return TRANSITIONS.getOrDefault(this, Set.of()).contains(next);
+    }
+
+    public boolean isFinal() {
+        return !TRANSITIONS.containsKey(this);
+    }
+
+    // Moves out of REQUEST_COMPLETE are the creator's decision, all others the assignee's
+    public boolean isVerdict() {
+        return this == COMPLETED || this == REQUEST_REJECTED;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.oauth.model;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
+import lombok.Data;
+
+/**
+ * One entry of a task's append-only status history, stored under Tasks/{taskId}/transitions
+ * and written in the same batch as the status change. {@code fromSince} is when the task
+ * entered {@code from}, so time spent in each status can be aggregated from these entries
+ * alone. {@code actorId} is null for changes made by the PR poller.
+ */
+@Data
+public class TaskTransition {
+    private String taskId;
+    private Long projectId;
+    private TaskStatus from;
+    private TaskStatus to;
+    private Long actorId;
+    private Timestamp fromSince;
+    @ServerTimestamp
+    private Timestamp at;
+}
@@ -2,16 +2,19 @@ package com.github.oauth.model;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 
 @Entity
-@Table(name = "tech_stack")
+@Table(name = "tech_stack", indexes = @Index(name = "idx_tech_stack_tech_name", columnList = "tech_name"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tech")
 public class Tech {
 
     @Id
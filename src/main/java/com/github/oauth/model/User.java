@@ -2,6 +2,10 @@ package com.github.oauth.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,15 +16,18 @@ import java.util.Set;
 import java.util.Objects;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_login", columnList = "login"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String githubId;
 
@@ -44,6 +51,7 @@ public class User {
 
     private LocalDateTime lastLoginAt;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE},
             fetch = FetchType.EAGER)
     @JoinTable(name = "user_role",
@@ -51,7 +59,9 @@ public class User {
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
-    @ManyToMany( cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REMOVE} , fetch = FetchType.EAGER)
+    // Techs are shared reference data resolved through TechDictionary, so nothing cascades to them
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-tech-stack")
+    @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_tech_stack",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -73,11 +83,6 @@ public class User {
         lastLoginAt = LocalDateTime.now();
     }
 
-    @PreUpdate
-    protected void onUpdate() {
-        lastLoginAt = LocalDateTime.now();
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
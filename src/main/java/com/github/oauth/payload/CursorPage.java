@@ -0,0 +1,18 @@
+package com.github.oauth.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> content = new ArrayList<>();
+    private int size;
+    // Opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.github.oauth.payload;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MessageDTO {
+    // ULID for new messages; older messages keep their <userId>_<message>_<projectId> ID
+    private String messageId;
+    private Long projectId;
+    private Long senderId;
+    private String message;
+    private Timestamp timestamp;
+}
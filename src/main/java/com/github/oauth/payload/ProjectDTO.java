@@ -17,6 +17,7 @@ public class ProjectDTO {
     private Set<String> techStack = new HashSet<>();
     private String githubRepository;
     private Long creatorId;
+    private Long version;
 
     @Override
     public String toString() {
@@ -27,6 +28,7 @@ public class ProjectDTO {
                 ", techStack=" + techStack +
                 ", githubRepository='" + githubRepository + '\'' +
                 ", creatorId=" + creatorId +
+                ", version=" + version +
                 '}';
     }
 
@@ -0,0 +1,14 @@
+package com.github.oauth.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectRecommendationDTO {
+    private ProjectDTO project;
+    // Weighted tech stack overlap in [0, 1]
+    private double score;
+}
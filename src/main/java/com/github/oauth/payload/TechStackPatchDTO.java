@@ -0,0 +1,18 @@
+package com.github.oauth.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TechStackPatchDTO {
+    private Set<String> add = new HashSet<>();
+    private Set<String> remove = new HashSet<>();
+    // Project version the client last read; null skips the staleness check
+    private Long version;
+}
@@ -0,0 +1,36 @@
+package com.github.oauth.payload;
+
+import com.github.oauth.exception.GeneralException;
+import com.google.cloud.Timestamp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position for Firestore listings ordered by a timestamp field and then document
+ * ID, encoded as an opaque URL-safe string for {@link CursorPage#getNextCursor()}.
+ */
+public record TimestampCursor(Timestamp timestamp, String id) {
+
+    // Legacy IDs may contain ':', so the ID goes last and the split is limited
+    public String encode() {
+        String raw = timestamp.getSeconds() + ":" + timestamp.getNanos() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null or blank means the first page; {@code kind} names the listing in the error
+    public static TimestampCursor decode(String cursor, String kind) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || parts[2].isEmpty())
+                throw new GeneralException("Invalid " + kind + " cursor");
+            return new TimestampCursor(Timestamp.ofTimeSecondsAndNanos(
+                    Long.parseLong(parts[0]), Integer.parseInt(parts[1])), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new GeneralException("Invalid " + kind + " cursor");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.oauth.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.cloud.firestore.FirestoreException;
+import io.grpc.Status;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public final class FirestoreFutures {
+
+    // Codes where the same request can succeed later; anything else fails again on retry
+    private static final Set<Status.Code> TRANSIENT_CODES = Set.of(Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED, Status.Code.ABORTED, Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.INTERNAL, Status.Code.UNKNOWN);
+
+    private FirestoreFutures() {
+    }
+
+    // Completes on Firestore's callback thread, so dependent stages must not block
+    public static <T> CompletableFuture<T> toCompletable(ApiFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.completeExceptionally(error);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FirestoreException firestoreException && firestoreException.getStatus() != null)
+                return TRANSIENT_CODES.contains(firestoreException.getStatus().getCode());
+            if (cause instanceof ApiException apiException)
+                return apiException.isRetryable()
+                        || TRANSIENT_CODES.contains(Status.Code.valueOf(apiException.getStatusCode().getCode().name()));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.model.ProjectJoinRequest;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteResult;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.repository.FirestoreFutures.toCompletable;
+
+// Non-blocking access to the ProjectJoinRequests collection
+@Repository
+public class JoinRequestDocumentRepository {
+
+    private static final String COLLECTION = "ProjectJoinRequests";
+
+    private final Firestore firestore;
+
+    public JoinRequestDocumentRepository(Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    public CompletableFuture<Boolean> hasPending(Long projectId, Long userId) {
+        return toCompletable(firestore.collection(COLLECTION)
+                .whereEqualTo("projectId", projectId)
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("status", "PENDING")
+                .limit(1)
+                .get())
+                .thenApply(snapshot -> !snapshot.isEmpty());
+    }
+
+    public CompletableFuture<WriteResult> save(String requestId, ProjectJoinRequest request) {
+        return toCompletable(firestore.collection(COLLECTION).document(requestId).set(request));
+    }
+
+    public CompletableFuture<Void> updateStatus(String requestId, String status) {
+        return toCompletable(firestore.collection(COLLECTION).document(requestId)
+                .set(Map.of("status", status), SetOptions.merge()))
+                .thenApply(result -> null);
+    }
+
+    public CompletableFuture<Void> delete(String requestId) {
+        return toCompletable(firestore.collection(COLLECTION).document(requestId).delete()).thenApply(result -> null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.payload.MessageDTO;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.WriteBatch;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.repository.FirestoreFutures.toCompletable;
+
+// Non-blocking access to the Messages collection
+@Repository
+public class MessageDocumentRepository {
+
+    private static final String COLLECTION = "Messages";
+
+    private final Firestore firestore;
+
+    public MessageDocumentRepository(Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    // One atomic commit for up to 500 messages, keyed by document ID
+    public CompletableFuture<Void> saveAll(Map<String, Map<String, Object>> messagesById) {
+        WriteBatch batch = firestore.batch();
+        messagesById.forEach((messageId, message) -> batch.set(firestore.collection(COLLECTION).document(messageId), message));
+        return toCompletable(batch.commit()).thenApply(result -> null);
+    }
+
+    public CompletableFuture<Optional<DocumentSnapshot>> findById(String messageId) {
+        return toCompletable(firestore.collection(COLLECTION).document(messageId).get())
+                .thenApply(document -> document.exists() ? Optional.of(document) : Optional.empty());
+    }
+
+    /**
+     * A project's messages, newest first, starting after the given (timestamp, ID) position.
+     * Needs the (projectId, timestamp, __name__) composite index in firestore.indexes.json.
+     */
+    public CompletableFuture<List<MessageDTO>> findNewestFirst(Long projectId, Timestamp beforeTimestamp,
+            String beforeMessageId, int limit) {
+        Query query = firestore.collection(COLLECTION).whereEqualTo("projectId", projectId)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (beforeTimestamp != null)
+            query = query.startAfter(beforeTimestamp, beforeMessageId);
+        return toCompletable(query.limit(limit).get())
+                .thenApply(snapshot -> snapshot.getDocuments().stream().map(this::toMessage).toList());
+    }
+
+    public CompletableFuture<Void> delete(String messageId) {
+        return toCompletable(firestore.collection(COLLECTION).document(messageId).delete()).thenApply(result -> null);
+    }
+
+    private MessageDTO toMessage(DocumentSnapshot document) {
+        return new MessageDTO(document.getId(), document.getLong("projectId"), document.getLong("senderId"),
+                document.getString("message"), document.getTimestamp("timestamp"));
+    }
+}
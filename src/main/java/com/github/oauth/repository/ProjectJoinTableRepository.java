@@ -0,0 +1,64 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.model.Project;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Direct writes to the project join tables, bypassing the Project aggregate so that
+ * changing one association row never loads or rewrites the whole collection.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+public class ProjectJoinTableRepository {
+
+    // rewriteBatchedStatements folds each batch into one multi-row INSERT
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectJoinTableRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Existing memberships are skipped by the (project_id, user_id) primary key
+    public void insertMembers(long projectId, Collection<Long> userIds) {
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO project_members (project_id, user_id) VALUES (?, ?)",
+                userIds, BATCH_SIZE, (ps, userId) -> {
+                    ps.setLong(1, projectId);
+                    ps.setLong(2, userId);
+                });
+    }
+
+    // Tech stack deltas: only the changed (project_id, tech_id) rows are touched
+    public void insertTechs(long projectId, Collection<Integer> techIds) {
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO project_tech_stack (project_id, tech_id) VALUES (?, ?)",
+                techIds, BATCH_SIZE, (ps, techId) -> {
+                    ps.setLong(1, projectId);
+                    ps.setInt(2, techId);
+                });
+    }
+
+    public void deleteTechs(long projectId, Collection<Integer> techIds) {
+        jdbcTemplate.batchUpdate("DELETE FROM project_tech_stack WHERE project_id = ? AND tech_id = ?",
+                techIds, BATCH_SIZE, (ps, techId) -> {
+                    ps.setLong(1, projectId);
+                    ps.setInt(2, techId);
+                });
+    }
+
+    /**
+     * Increments the project version if it still equals {@code expectedVersion}, so join
+     * table changes conflict with concurrent edits just like entity updates do.
+     */
+    public void bumpVersion(long projectId, long expectedVersion) {
+        int updated = jdbcTemplate.update(
+                "UPDATE projects SET version = version + 1 WHERE project_id = ? AND version = ?",
+                projectId, expectedVersion);
+        if (updated == 0)
+            throw new ObjectOptimisticLockingFailureException(Project.class, projectId);
+    }
+}
@@ -1,13 +1,18 @@
 package com.github.oauth.repository;
 
 import com.github.oauth.model.Project;
+import com.github.oauth.model.ProjectStatus;
 import com.github.oauth.model.Tech;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 @Repository
@@ -21,4 +26,121 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
            "GROUP BY p " +
            "ORDER BY COUNT(pt) DESC")
     List<Project> findByTechStackOrderByMatchCount(@Param("techStack") Set<Tech> techStack);
+
+    // Keyset page over (matchCount DESC, projectId ASC); only touches project_tech_stack
+    @Query("SELECT p.projectId AS projectId, COUNT(pt) AS matchCount FROM Project p " +
+           "JOIN p.techStack pt " +
+           "WHERE pt.id IN :techIds " +
+           "GROUP BY p.projectId " +
+           "HAVING COUNT(pt) < :matchCount OR (COUNT(pt) = :matchCount AND p.projectId > :projectId) " +
+           "ORDER BY COUNT(pt) DESC, p.projectId ASC")
+    List<ProjectMatch> findMatchesAfter(@Param("techIds") Set<Integer> techIds,
+                                        @Param("matchCount") long matchCount,
+                                        @Param("projectId") long projectId,
+                                        Pageable pageable);
+
+    // The poller's GitHub token, without loading the project or its creator
+    @Query("SELECT p.creator.accessToken FROM Project p WHERE p.projectId = :projectId")
+    Optional<String> findCreatorAccessTokenByProjectId(@Param("projectId") Long projectId);
+
+    @EntityGraph(attributePaths = {"techStack", "creator"})
+    List<Project> findByProjectIdIn(Collection<Long> projectIds);
+
+    @Query("SELECT p.projectId AS projectId, pt.id AS techId, p.projectStatus AS projectStatus " +
+           "FROM Project p JOIN p.techStack pt")
+    List<ProjectTechLink> findAllTechLinks();
+
+    @Query("SELECT p.projectId AS projectId, p.projectName AS projectName, p.description AS description " +
+           "FROM Project p")
+    List<ProjectText> findAllProjectText();
+
+    // Scalar columns only, so reading a project for a small edit does not load its associations
+    @Query("SELECT p.projectId AS projectId, p.projectName AS projectName, p.description AS description, " +
+           "p.githubRepository AS githubRepository, p.projectStatus AS projectStatus, " +
+           "p.creator.id AS creatorId, p.version AS version " +
+           "FROM Project p WHERE p.projectId = :projectId")
+    Optional<ProjectHeader> findHeaderByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT pt FROM Project p JOIN p.techStack pt WHERE p.projectId = :projectId")
+    List<Tech> findTechStackByProjectId(@Param("projectId") Long projectId);
+
+    // Point lookup on the (project_id, user_id) primary key of the join table
+    @Query(value = "SELECT COUNT(*) FROM project_members WHERE project_id = :projectId AND user_id = :userId",
+           nativeQuery = true)
+    long countMembership(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    // One keyset page of members over the (project_id, user_id) primary key. Roles and techs are
+    // aggregated per row as JSON arrays, which unlike GROUP_CONCAT are not truncated at 1024 bytes
+    @Query(value = "SELECT u.id AS id, u.login AS login, u.name AS name, u.email AS email, " +
+                   "u.avatar_url AS avatarUrl, u.github_id AS githubId, " +
+                   "(SELECT JSON_ARRAYAGG(r.role_name) FROM user_role ur JOIN roles r ON r.id = ur.role_id " +
+                   " WHERE ur.user_id = u.id) AS roles, " +
+                   "(SELECT JSON_ARRAYAGG(t.tech_name) FROM user_tech_stack ut JOIN tech_stack t ON t.tech_id = ut.tech_id " +
+                   " WHERE ut.user_id = u.id) AS techStack " +
+                   "FROM project_members pm JOIN users u ON u.id = pm.user_id " +
+                   "WHERE pm.project_id = :projectId AND pm.user_id > :afterUserId " +
+                   "ORDER BY pm.user_id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ProjectMember> findMembersAfter(@Param("projectId") Long projectId,
+                                         @Param("afterUserId") long afterUserId,
+                                         @Param("limit") int limit);
+
+    interface ProjectMatch {
+        Long getProjectId();
+
+        Long getMatchCount();
+    }
+
+    interface ProjectTechLink {
+        Long getProjectId();
+
+        Integer getTechId();
+
+        ProjectStatus getProjectStatus();
+    }
+
+    interface ProjectHeader {
+        Long getProjectId();
+
+        String getProjectName();
+
+        String getDescription();
+
+        String getGithubRepository();
+
+        ProjectStatus getProjectStatus();
+
+        Long getCreatorId();
+
+        Long getVersion();
+    }
+
+    interface ProjectMember {
+        Long getId();
+
+        String getLogin();
+
+        String getName();
+
+        String getEmail();
+
+        String getAvatarUrl();
+
+        String getGithubId();
+
+        // JSON array of role names, null when the user has none
+        String getRoles();
+
+        // JSON array of tech names, null when the user has none
+        String getTechStack();
+    }
+
+    interface ProjectText {
+        Long getProjectId();
+
+        String getProjectName();
+
+        String getDescription();
+    }
 }
@@ -0,0 +1,338 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
+import com.github.oauth.model.TaskTransition;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import io.grpc.Status;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static com.github.oauth.repository.FirestoreFutures.toCompletable;
+
+/**
+ * Non-blocking access to the Tasks collection. Every method returns as soon as the
+ * request is sent; results arrive on Firestore's callback threads.
+ */
+@Repository
+public class TaskDocumentRepository {
+
+    private static final String COLLECTION = "Tasks";
+    private static final String TRANSITIONS = "transitions";
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    // Firestore caps a batch at 500 writes; each transition is an update plus a history entry
+    private static final int TRANSITIONS_PER_BATCH = 250;
+
+    private final Firestore firestore;
+
+    public TaskDocumentRepository(Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    // IDs handed out before the move to ULIDs keep resolving, through the legacyId kept on the task
+    public CompletableFuture<Optional<Task>> findById(String taskId) {
+        return toCompletable(tasks().document(taskId).get())
+                .thenCompose(document -> {
+                    if (document.exists())
+                        return CompletableFuture.completedFuture(Optional.ofNullable(toTask(document)));
+                    if (Ulid.isUlid(taskId))
+                        return CompletableFuture.completedFuture(Optional.<Task>empty());
+                    return findByLegacyId(taskId);
+                });
+    }
+
+    private CompletableFuture<Optional<Task>> findByLegacyId(String legacyId) {
+        return toCompletable(tasks().whereEqualTo("legacyId", legacyId).limit(1).get())
+                .thenApply(snapshot -> snapshot.isEmpty() ? Optional.<Task>empty()
+                        : Optional.ofNullable(toTask(snapshot.getDocuments().get(0))));
+    }
+
+    // A task together with the update time it was read at, for writes guarded on it
+    public record VersionedTask(Task task, Timestamp updateTime) {
+    }
+
+    public CompletableFuture<List<VersionedTask>> findVersionedByStatus(TaskStatus status) {
+        return toCompletable(tasks().whereEqualTo("status", status.name()).get())
+                .thenApply(snapshot -> snapshot.getDocuments().stream()
+                        .map(document -> new VersionedTask(toTask(document), document.getUpdateTime()))
+                        .toList());
+    }
+
+    /**
+     * Tasks whose {@code field} equals {@code value}, optionally in one status, newest first
+     * by (createdAt, document ID) and strictly after the given position when one is set.
+     */
+    public CompletableFuture<List<Task>> findNewestFirst(String field, Object value, TaskStatus status,
+            Timestamp afterCreatedAt, String afterTaskId, int limit) {
+        Query query = tasks().whereEqualTo(field, value);
+        if (status != null)
+            query = query.whereEqualTo("status", status.name());
+        query = query.orderBy("createdAt", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (afterCreatedAt != null)
+            query = query.startAfter(afterCreatedAt, afterTaskId);
+        return toCompletable(query.limit(limit).get()).thenApply(this::toTasks);
+    }
+
+    // Writes the task and the first entry of its status history together
+    public CompletableFuture<Void> save(Task task, Long actorId) {
+        DocumentReference document = tasks().document(task.getId());
+        WriteBatch batch = firestore.batch();
+        batch.set(document, task);
+        batch.create(document.collection(TRANSITIONS).document(),
+                transitionOf(task, null, task.getStatus(), actorId, null));
+        return toCompletable(batch.commit()).thenApply(result -> null);
+    }
+
+    /**
+     * Status change with one read and one atomic batch. {@code change} gets the stored task
+     * and returns the new status plus any other fields to write, or throws to reject the
+     * transition. The batch updates the task and appends to its transitions subcollection,
+     * guarded by the read's update time: a concurrent change fails it rather than being
+     * overwritten, and the transition is re-validated against the newer state. Completes
+     * with the task as it was read before the change.
+     */
+    public CompletableFuture<Task> transition(String taskId, Long actorId, Function<Task, StatusChange> change) {
+        return transition(taskId, actorId, change, Runnable::run);
+    }
+
+    // As above, with {@code change} run on the given executor, for checks that block
+    public CompletableFuture<Task> transition(String taskId, Long actorId, Function<Task, StatusChange> change,
+            Executor changeExecutor) {
+        return transition(taskId, actorId, change, changeExecutor, 1);
+    }
+
+    public record StatusChange(TaskStatus to, Map<String, Object> fields) {
+
+        public static StatusChange to(TaskStatus status) {
+            return new StatusChange(status, Map.of());
+        }
+    }
+
+    private record CheckedChange(Task stored, Timestamp updateTime, StatusChange change) {
+    }
+
+    private CompletableFuture<Task> transition(String taskId, Long actorId, Function<Task, StatusChange> change,
+            Executor changeExecutor, int attempt) {
+        DocumentReference document = tasks().document(taskId);
+        return toCompletable(document.get())
+                .thenApplyAsync(snapshot -> {
+                    if (!snapshot.exists())
+                        throw new ResourceNotFound("Task not found with ID: " + taskId);
+                    Task stored = toTask(snapshot);
+                    return new CheckedChange(stored, snapshot.getUpdateTime(), change.apply(stored));
+                }, changeExecutor)
+                .thenCompose(checked -> {
+                    WriteBatch batch = firestore.batch();
+                    addTransition(batch, checked.stored(), checked.updateTime(), checked.change(), actorId);
+                    return toCompletable(batch.commit()).thenApply(result -> checked.stored());
+                })
+                .exceptionallyCompose(error -> {
+                    if (!isPreconditionFailure(error))
+                        return CompletableFuture.failedFuture(error);
+                    if (attempt >= MAX_TRANSITION_ATTEMPTS)
+                        return CompletableFuture.failedFuture(new OptimisticLockingFailureException(
+                                "Task " + taskId + " kept changing during the update"));
+                    return transition(taskId, actorId, change, changeExecutor, attempt + 1);
+                });
+    }
+
+    /**
+     * Applies already-validated transitions with as few commits as possible, each task's
+     * update and history entry in the same batch and guarded by the update time it was read
+     * at. Firestore does not say which task failed a batch's precondition, so a failed batch
+     * is split in half and each half retried; the tasks that change underneath are isolated
+     * in a few commits while the rest are still written together. Returns the IDs of the
+     * tasks that changed since they were read, for the caller to re-validate one at a time.
+     */
+    public CompletableFuture<List<String>> applyTransitions(Map<VersionedTask, StatusChange> changes, Long actorId) {
+        List<Map.Entry<VersionedTask, StatusChange>> entries = List.copyOf(changes.entrySet());
+        List<CompletableFuture<List<String>>> commits = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += TRANSITIONS_PER_BATCH) {
+            commits.add(commitTransitions(
+                    entries.subList(from, Math.min(entries.size(), from + TRANSITIONS_PER_BATCH)), actorId));
+        }
+        return CompletableFuture.allOf(commits.toArray(new CompletableFuture[0]))
+                .thenApply(done -> commits.stream().flatMap(commit -> commit.join().stream()).toList());
+    }
+
+    private CompletableFuture<List<String>> commitTransitions(List<Map.Entry<VersionedTask, StatusChange>> chunk,
+            Long actorId) {
+        WriteBatch batch = firestore.batch();
+        chunk.forEach(entry -> addTransition(batch, entry.getKey().task(), entry.getKey().updateTime(),
+                entry.getValue(), actorId));
+        return toCompletable(batch.commit())
+                .thenApply(result -> List.<String>of())
+                .exceptionallyCompose(error -> {
+                    if (!isPreconditionFailure(error))
+                        return CompletableFuture.failedFuture(error);
+                    if (chunk.size() == 1)
+                        return CompletableFuture.completedFuture(List.of(chunk.get(0).getKey().task().getId()));
+                    int half = chunk.size() / 2;
+                    CompletableFuture<List<String>> first = commitTransitions(chunk.subList(0, half), actorId);
+                    CompletableFuture<List<String>> second = commitTransitions(chunk.subList(half, chunk.size()), actorId);
+                    return first.thenCombine(second, (a, b) -> {
+                        List<String> conflicted = new ArrayList<>(a);
+                        conflicted.addAll(b);
+                        return conflicted;
+                    });
+                });
+    }
+
+    /**
+     * Sets one field to the same value on many tasks through a BulkWriter, which batches and
+     * paces the writes. Writes are independent: a task deleted meanwhile is skipped.
+     */
+    public CompletableFuture<Void> updateAll(Collection<String> taskIds, String field, Object value) {
+        if (taskIds.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        BulkWriter writer = firestore.bulkWriter();
+        for (String taskId : taskIds) {
+            // The per-write result is not needed; a failed write only affects its own task
+            writer.update(tasks().document(taskId), field, value);
+        }
+        return toCompletable(writer.flush()).whenComplete((done, error) -> close(writer));
+    }
+
+    private static void close(BulkWriter writer) {
+        try {
+            // Everything is flushed by now, so this only releases the writer
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failed writes were already dropped; nothing more to report
+        }
+    }
+
+    // Document IDs in key order, for walking the whole collection a page at a time
+    public CompletableFuture<List<String>> findIdsAfter(String afterTaskId, int limit) {
+        Query query = tasks().orderBy(FieldPath.documentId()).select(new String[0]);
+        if (afterTaskId != null)
+            query = query.startAfter(afterTaskId);
+        return toCompletable(query.limit(limit).get())
+                .thenApply(snapshot -> snapshot.getDocuments().stream().map(DocumentSnapshot::getId).toList());
+    }
+
+    /**
+     * Moves a task stored under a legacy ID to a new ULID, with its transition history, in one
+     * batch. The ULID keeps the task's creation time so listings keep their order, and the old
+     * ID is kept in {@code legacyId}. Guarded by the old document's update time, so a task
+     * changed meanwhile is left for the next run. Completes with the new ID, or empty when the
+     * task no longer exists.
+     */
+    public CompletableFuture<Optional<String>> moveToUlid(String legacyId) {
+        DocumentReference legacy = tasks().document(legacyId);
+        return toCompletable(legacy.get()).thenCompose(snapshot -> {
+            if (!snapshot.exists())
+                return CompletableFuture.completedFuture(Optional.<String>empty());
+            return toCompletable(legacy.collection(TRANSITIONS).get()).thenCompose(history -> {
+                Timestamp createdAt = snapshot.getTimestamp("createdAt");
+                String newId = Ulid.at(createdAt != null ? createdAt.toDate().getTime()
+                        : snapshot.getCreateTime().toDate().getTime());
+                DocumentReference moved = tasks().document(newId);
+
+                Map<String, Object> data = new HashMap<>(snapshot.getData());
+                data.put("id", newId);
+                data.put("legacyId", legacyId);
+
+                WriteBatch batch = firestore.batch();
+                batch.create(moved, data);
+                for (DocumentSnapshot entry : history.getDocuments()) {
+                    Map<String, Object> entryData = new HashMap<>(entry.getData());
+                    entryData.put("taskId", newId);
+                    batch.create(moved.collection(TRANSITIONS).document(entry.getId()), entryData);
+                    batch.delete(entry.getReference());
+                }
+                batch.delete(legacy, Precondition.updatedAt(snapshot.getUpdateTime()));
+                return toCompletable(batch.commit()).thenApply(result -> Optional.of(newId));
+            });
+        });
+    }
+
+    // History stays after the task is deleted, so completed work still counts in metrics
+    public CompletableFuture<Void> delete(String taskId) {
+        return toCompletable(tasks().document(taskId).delete()).thenApply(result -> null);
+    }
+
+    private CollectionReference tasks() {
+        return firestore.collection(COLLECTION);
+    }
+
+    private void addTransition(WriteBatch batch, Task stored, Timestamp updateTime, StatusChange change,
+            Long actorId) {
+        DocumentReference document = tasks().document(stored.getId());
+        Map<String, Object> fields = new HashMap<>(change.fields());
+        fields.put("status", change.to().name());
+        fields.put("statusChangedAt", FieldValue.serverTimestamp());
+        // Documents written before statusChangedAt existed have been in their status since creation
+        Timestamp fromSince = stored.getStatusChangedAt() != null ? stored.getStatusChangedAt() : stored.getCreatedAt();
+
+        batch.update(document, fields, Precondition.updatedAt(updateTime));
+        batch.create(document.collection(TRANSITIONS).document(),
+                transitionOf(stored, stored.getStatus(), change.to(), actorId, fromSince));
+    }
+
+    private static TaskTransition transitionOf(Task task, TaskStatus from, TaskStatus to, Long actorId,
+            Timestamp fromSince) {
+        TaskTransition transition = new TaskTransition();
+        transition.setTaskId(task.getId());
+        transition.setProjectId(task.getProjectId());
+        transition.setFrom(from);
+        transition.setTo(to);
+        transition.setActorId(actorId);
+        transition.setFromSince(fromSince);
+        return transition;
+    }
+
+    private static boolean isPreconditionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FirestoreException firestoreException && firestoreException.getStatus() != null
+                    && firestoreException.getStatus().getCode() == Status.Code.FAILED_PRECONDITION)
+                return true;
+            if (cause instanceof ApiException apiException
+                    && apiException.getStatusCode().getCode() == StatusCode.Code.FAILED_PRECONDITION)
+                return true;
+        }
+        return false;
+    }
+
+    private List<Task> toTasks(QuerySnapshot snapshot) {
+        return snapshot.getDocuments().stream()
+                .map(this::toTask)
+                .toList();
+    }
+
+    private Task toTask(DocumentSnapshot document) {
+        Task task = document.toObject(Task.class);
+        if (task != null)
+            task.setId(document.getId());
+        return task;
+    }
+}
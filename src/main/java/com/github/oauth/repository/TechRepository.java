@@ -4,8 +4,13 @@ import com.github.oauth.model.Tech;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TechRepository extends JpaRepository<Tech, Integer> {
 
     Tech findByTechName(String technology);
+
+    List<Tech> findByTechNameIn(Collection<String> technologies);
 }
@@ -0,0 +1,72 @@
+package com.github.oauth.repository;
+
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 26-character ULIDs for Firestore document IDs: 48 bits of millisecond time then 80 random
+ * bits, Crockford base32. They sort by creation time, carry no user input, and IDs made
+ * within the same millisecond on this instance stay increasing.
+ */
+public final class Ulid {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final Pattern FORMAT = Pattern.compile("[0-7][0-9A-HJKMNP-TV-Z]{25}");
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis = -1;
+    private static long lastRandomHigh;
+    private static long lastRandomLow;
+
+    private Ulid() {
+    }
+
+    public static String next() {
+        long millis = System.currentTimeMillis();
+        long randomHigh;
+        long randomLow;
+        synchronized (Ulid.class) {
+            if (millis <= lastMillis) {
+                // Same millisecond, or the clock stepped back: keep the last time and add one
+                millis = lastMillis;
+                lastRandomLow = (lastRandomLow + 1) & 0xFFFFFFFFFFL;
+                if (lastRandomLow == 0)
+                    lastRandomHigh = (lastRandomHigh + 1) & 0xFFFFFFFFFFL;
+            } else {
+                lastMillis = millis;
+                lastRandomHigh = RANDOM.nextLong() & 0xFFFFFFFFFFL;
+                lastRandomLow = RANDOM.nextLong() & 0xFFFFFFFFFFL;
+            }
+            randomHigh = lastRandomHigh;
+            randomLow = lastRandomLow;
+        }
+        return encode(millis, randomHigh, randomLow);
+    }
+
+    // For backfilling documents with their original creation time; not monotonic
+    public static String at(long epochMillis) {
+        return encode(epochMillis, RANDOM.nextLong() & 0xFFFFFFFFFFL, RANDOM.nextLong() & 0xFFFFFFFFFFL);
+    }
+
+    public static boolean isUlid(String id) {
+        return id != null && FORMAT.matcher(id).matches();
+    }
+
+    // 10 chars of time, then two 40-bit random halves of 8 chars each
+    private static String encode(long millis, long randomHigh, long randomLow) {
+        char[] chars = new char[26];
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (millis & 31)];
+            millis >>>= 5;
+        }
+        for (int i = 17; i >= 10; i--) {
+            chars[i] = ALPHABET[(int) (randomHigh & 31)];
+            randomHigh >>>= 5;
+        }
+        for (int i = 25; i >= 18; i--) {
+            chars[i] = ALPHABET[(int) (randomLow & 31)];
+            randomLow >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    Optional<User> findByGithubId(String githubId);
+
+    void updateLogin(long userId, String accessToken, LocalDateTime tokenExpiryDate, LocalDateTime lastLoginAt);
+
+    void updateEmail(long userId, String email);
+}
@@ -0,0 +1,53 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * findByGithubId runs on every authenticated request through getCurrentUser. Loading by
+ * natural ID lets Hibernate answer it from the natural-id and entity cache regions
+ * instead of querying users, which a derived query could not do.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Custom fragment methods get no transaction from Spring Data, and unwrapping the
+    // shared EntityManager needs one; callers such as the OAuth2 login filter have none
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByGithubId(String githubId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(githubId);
+    }
+
+    // Plain JDBC because a JPQL bulk update would evict every cached user, not just this
+    // one; the caller evicts the single entry once the write is committed
+    @Override
+    public void updateLogin(long userId, String accessToken, LocalDateTime tokenExpiryDate,
+            LocalDateTime lastLoginAt) {
+        jdbcTemplate.update(
+                "UPDATE users SET access_token = ?, token_expiry_date = ?, last_login_at = ? WHERE id = ?",
+                accessToken, tokenExpiryDate, lastLoginAt, userId);
+    }
+
+    @Override
+    public void updateEmail(long userId, String email) {
+        jdbcTemplate.update("UPDATE users SET email = ? WHERE id = ?", email, userId);
+    }
+}
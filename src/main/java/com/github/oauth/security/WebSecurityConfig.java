@@ -1,6 +1,7 @@
 package com.github.oauth.security;
 
 import com.github.oauth.service.OAuth2UserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -37,6 +38,8 @@ public class WebSecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
                 .authorizeHttpRequests(auth -> auth
+                        // Async endpoints were already authorized on the original request dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/", "/login/**", "/oauth2/**", "/api/auth/me", "/auth/**", "/error",
                                 "/oauth-callback.html")
                         .permitAll()
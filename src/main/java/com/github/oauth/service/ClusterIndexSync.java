@@ -0,0 +1,87 @@
+package com.github.oauth.service;
+
+import com.github.oauth.config.CacheInvalidation;
+import com.github.oauth.config.SharedCacheTier;
+import com.github.oauth.model.ProjectStatus;
+import com.github.oauth.model.Tech;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ProjectTechIndex, ProjectSearchIndex and ProjectRecommendationService are per instance
+ * and only patched on the instance that made the write. This announces committed project
+ * and user changes over the shared cache channel so the other instances reload the
+ * project from the database or drop the user's cached recommendations.
+ */
+@Service
+public class ClusterIndexSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterIndexSync.class);
+
+    private static final String PROJECTS = "index:project";
+    private static final String USER_RECOMMENDATIONS = "index:user-recommendations";
+
+    private final SharedCacheTier sharedCacheTier;
+    private final ProjectRepository projectRepository;
+    private final ProjectTechIndex projectTechIndex;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final ProjectRecommendationService projectRecommendationService;
+
+    public ClusterIndexSync(SharedCacheTier sharedCacheTier, ProjectRepository projectRepository,
+            ProjectTechIndex projectTechIndex, ProjectSearchIndex projectSearchIndex,
+            ProjectRecommendationService projectRecommendationService) {
+        this.sharedCacheTier = sharedCacheTier;
+        this.projectRepository = projectRepository;
+        this.projectTechIndex = projectTechIndex;
+        this.projectSearchIndex = projectSearchIndex;
+        this.projectRecommendationService = projectRecommendationService;
+        sharedCacheTier.subscribe(this::onInvalidation);
+    }
+
+    // Call after commit, covers creates, updates and deletes
+    public void projectChanged(long projectId) {
+        sharedCacheTier.publish(PROJECTS, Long.toString(projectId));
+    }
+
+    // Call after commit when the user's tech stack or memberships change
+    public void userChanged(long userId) {
+        sharedCacheTier.publish(USER_RECOMMENDATIONS, Long.toString(userId));
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.key() == null)
+            return;
+        switch (invalidation.cacheName()) {
+            case PROJECTS -> reloadProject(Long.parseLong(invalidation.key()));
+            case USER_RECOMMENDATIONS -> projectRecommendationService.evictUser(Long.parseLong(invalidation.key()));
+            default -> {
+            }
+        }
+    }
+
+    private void reloadProject(long projectId) {
+        Optional<ProjectHeader> header = projectRepository.findHeaderByProjectId(projectId);
+        if (header.isEmpty()) {
+            projectTechIndex.remove(projectId);
+            projectSearchIndex.remove(projectId);
+            projectRecommendationService.onProjectRemoved(projectId);
+            logger.debug("Removed project {} deleted on another instance", projectId);
+            return;
+        }
+        Set<Integer> techIds = projectRepository.findTechStackByProjectId(projectId).stream()
+                .map(Tech::getId)
+                .collect(Collectors.toSet());
+        boolean open = header.get().getProjectStatus() == ProjectStatus.OPEN;
+        projectTechIndex.index(projectId, techIds, open);
+        projectRecommendationService.onProjectChanged(projectId);
+        projectSearchIndex.index(projectId, header.get().getProjectName(), header.get().getDescription(), techIds);
+        logger.debug("Reindexed project {} changed on another instance", projectId);
+    }
+}
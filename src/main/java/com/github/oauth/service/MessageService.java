@@ -2,10 +2,16 @@ package com.github.oauth.service;
 
 import com.github.oauth.model.Message;
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.MessageDTO;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface MessageService {
 
-    String addMessage(Message message, User user);
+    CompletableFuture<String> addMessage(Message message, User user);
     
-    String deleteMessage(String messageId, User user);
+    CompletableFuture<String> deleteMessage(String messageId, User user);
+
+    CompletableFuture<CursorPage<MessageDTO>> getProjectMessages(Long projectId, String cursor, int size, User user);
 }
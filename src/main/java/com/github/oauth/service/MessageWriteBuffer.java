@@ -0,0 +1,250 @@
+package com.github.oauth.service;
+
+import com.github.oauth.exception.CapacityExceededException;
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.repository.MessageDocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.oauth.repository.FirestoreFutures.isTransient;
+
+/**
+ * Write-behind buffer for chat messages. Senders are acknowledged once their message is
+ * queued; a single flusher thread groups whatever arrived within the flush interval into
+ * one WriteBatch commit. At most a few commits are in flight, so when Firestore slows down
+ * the queue fills and new messages are rejected instead of piling up in memory. Transient
+ * failures are retried with backoff; a batch that fails permanently is retried one message
+ * at a time so a single bad message cannot take the others down. Each message's future
+ * reports its final outcome so the caller can tell the sender. Queued messages are flushed
+ * on shutdown but are lost if the process dies.
+ */
+@Service
+public class MessageWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriteBuffer.class);
+
+    // Firestore rejects batches with more writes than this
+    private static final int MAX_BATCH_WRITES = 500;
+    private static final int MAX_COMMIT_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private final MessageDocumentRepository messageDocumentRepository;
+    private final Duration flushInterval;
+    private final int maxBatchSize;
+    private final int maxInFlightBatches;
+    private final int maxMessageBytes;
+
+    private final BlockingQueue<PendingMessage> queue;
+    private final Map<String, PendingMessage> pendingById = new ConcurrentHashMap<>();
+    private final Semaphore inFlightBatches;
+    private final Thread flusher = new Thread(this::run, "message-flusher");
+    private volatile boolean running = true;
+
+    private final Timer flushLatency;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public MessageWriteBuffer(MessageDocumentRepository messageDocumentRepository, MeterRegistry meterRegistry,
+            @Value("${app.messages.buffer-capacity:10000}") int capacity,
+            @Value("${app.messages.flush-interval:5ms}") Duration flushInterval,
+            @Value("${app.messages.max-batch-size:500}") int maxBatchSize,
+            @Value("${app.messages.max-in-flight-batches:4}") int maxInFlightBatches,
+            @Value("${app.messages.max-message-bytes:16384}") int maxMessageBytes) {
+        this.messageDocumentRepository = messageDocumentRepository;
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = Math.min(maxBatchSize, MAX_BATCH_WRITES);
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.maxMessageBytes = maxMessageBytes;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+
+        Gauge.builder("messages.buffer.size", queue, BlockingQueue::size)
+                .description("Messages acknowledged but not yet sent to Firestore")
+                .register(meterRegistry);
+        flushLatency = Timer.builder("messages.flush.latency")
+                .description("Time to write one batch, retries and per-message fallback included")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("messages.flush.batch.size")
+                .description("Messages written per batch commit")
+                .register(meterRegistry);
+        rejected = Counter.builder("messages.rejected")
+                .description("Messages refused because the buffer was full")
+                .register(meterRegistry);
+        failed = Counter.builder("messages.flush.failed")
+                .description("Acknowledged messages that could not be written")
+                .register(meterRegistry);
+    }
+
+    private record PendingMessage(String messageId, Map<String, Object> data, CompletableFuture<Void> written) {
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues the message and returns a future that completes once it is in Firestore, or
+     * exceptionally once it has been given up on. Throws GeneralException for a message too
+     * large to store, and CapacityExceededException when the buffer is full; callers should
+     * ask the client to retry rather than wait.
+     */
+    public CompletableFuture<Void> enqueue(String messageId, Map<String, Object> data) {
+        // Checked here because one oversized document would fail the whole batch it lands in
+        if (estimatedBytes(data) > maxMessageBytes)
+            throw new GeneralException("Message is too large, the limit is " + maxMessageBytes + " bytes");
+
+        PendingMessage message = new PendingMessage(messageId, data, new CompletableFuture<>());
+        pendingById.put(messageId, message);
+        if (!running || !queue.offer(message)) {
+            pendingById.remove(messageId);
+            rejected.increment();
+            throw new CapacityExceededException("Too many messages being sent, retry shortly");
+        }
+        return message.written();
+    }
+
+    // The write of a message that was acknowledged but may not be in Firestore yet
+    public Optional<CompletableFuture<Void>> pendingWrite(String messageId) {
+        PendingMessage message = pendingById.get(messageId);
+        return message == null ? Optional.empty() : Optional.of(message.written());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(10_000);
+        // Waits for the last commits so shutdown does not close Firestore underneath them
+        if (!inFlightBatches.tryAcquire(maxInFlightBatches, 10, TimeUnit.SECONDS))
+            logger.warn("Message commits still in flight at shutdown");
+        if (!queue.isEmpty())
+            logger.error("{} buffered messages were not written before shutdown", queue.size());
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+
+                // Gives messages sent right after this one a chance to share its commit
+                List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    PendingMessage next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+
+                inFlightBatches.acquire();
+                batchSize.record(batch.size());
+                long startedNanos = System.nanoTime();
+                commitBatch(batch).whenComplete((result, error) -> {
+                    flushLatency.record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+                    inFlightBatches.release();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Message flusher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // Completes when every message in the batch has been written or given up on
+    private CompletableFuture<Void> commitBatch(List<PendingMessage> batch) {
+        return commit(batch, 1).handle((result, error) -> {
+            if (error == null) {
+                batch.forEach(message -> finish(message, null));
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            if (batch.size() == 1 || isTransient(error)) {
+                // Retries are used up, or the one message is itself the problem
+                logger.error("Failed to write {} messages: {}", batch.size(), error.getMessage());
+                batch.forEach(message -> finish(message, error));
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+
+            // Something in the batch can never be written; find it by writing one at a time
+            logger.warn("Message batch of {} rejected, writing individually: {}", batch.size(), error.getMessage());
+            return CompletableFuture.allOf(batch.stream()
+                    .map(message -> commitBatch(List.of(message)))
+                    .toArray(CompletableFuture[]::new));
+        }).thenCompose(next -> next);
+    }
+
+    // Every write sets a whole document under its own ID, so a retried batch is idempotent
+    private CompletableFuture<Void> commit(List<PendingMessage> batch, int attempt) {
+        Map<String, Map<String, Object>> messages = new LinkedHashMap<>();
+        batch.forEach(message -> messages.put(message.messageId(), message.data()));
+
+        return messageDocumentRepository.saveAll(messages).handle((result, error) -> {
+            if (error == null)
+                return CompletableFuture.<Void>completedFuture(null);
+            if (attempt >= MAX_COMMIT_ATTEMPTS || !isTransient(error))
+                return CompletableFuture.<Void>failedFuture(error);
+
+            // Exponential backoff with jitter, off the Firestore callback thread
+            long delay = RETRY_BACKOFF_MILLIS * (1L << (attempt - 1))
+                    + ThreadLocalRandom.current().nextLong(RETRY_BACKOFF_MILLIS);
+            logger.warn("Message batch of {} failed on attempt {}, retrying in {}ms: {}",
+                    batch.size(), attempt, delay, error.getMessage());
+            return CompletableFuture.supplyAsync(() -> null,
+                            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> commit(batch, attempt + 1));
+        }).thenCompose(next -> next);
+    }
+
+    private void finish(PendingMessage message, Throwable error) {
+        pendingById.remove(message.messageId());
+        if (error == null) {
+            message.written().complete(null);
+        } else {
+            failed.increment();
+            message.written().completeExceptionally(error);
+        }
+    }
+
+    // UTF-8 size of field names and string values, plus a little for the other fields
+    private static int estimatedBytes(Map<String, Object> data) {
+        int bytes = 0;
+        for (Map.Entry<String, Object> field : data.entrySet()) {
+            bytes += field.getKey().length() + 1;
+            bytes += field.getValue() instanceof String value
+                    ? value.getBytes(StandardCharsets.UTF_8).length + 1
+                    : 16;
+        }
+        return bytes;
+    }
+}
@@ -4,15 +4,17 @@ package com.github.oauth.service;
 import com.github.oauth.model.ProjectJoinRequest;
 import com.github.oauth.model.User;
 
+import java.util.concurrent.CompletableFuture;
+
 
 public interface NotificationService {
 
-    public String addRequest(ProjectJoinRequest joinRequest, User user);
+    CompletableFuture<String> addRequest(ProjectJoinRequest joinRequest, User user);
 
     public String updateRequest(ProjectJoinRequest joinRequest, User creator);
 
 
-    String deleteRequest(Long userId, Long projectId, User user);
+    CompletableFuture<String> deleteRequest(Long userId, Long projectId, User user);
 
-    String deleteOwnRequest(Long projectId, User user);
+    CompletableFuture<String> deleteOwnRequest(Long projectId, User user);
 }
@@ -1,6 +1,7 @@
 package com.github.oauth.service;
 
 
+import com.github.oauth.config.EntityCacheInvalidator;
 import com.github.oauth.model.User;
 import com.github.oauth.repository.UserRepository;
 import com.github.oauth.repository.RoleRepository;
@@ -12,19 +13,28 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import static com.github.oauth.service.TransactionHooks.afterCommit;
+
 @Service
 public class OAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    private static final Duration LAST_LOGIN_RESOLUTION = Duration.ofMinutes(1);
 
-    public OAuth2UserService (UserRepository userRepository, RoleRepository roleRepository){
+    public OAuth2UserService (UserRepository userRepository, RoleRepository roleRepository,
+            EntityCacheInvalidator entityCacheInvalidator){
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     @Override
@@ -46,6 +56,11 @@ public class OAuth2UserService extends DefaultOAuth2UserService {
         Optional<User> userOptional = userRepository.findByGithubId(githubId);
         User user;
 
+        if (userOptional.isPresent() && !profileChanged(userOptional.get(), login, name, email, avatarUrl)) {
+            recordLogin(userOptional.get(), userRequest);
+            return oAuth2User;
+        }
+
         if (userOptional.isPresent()) {
             user = userOptional.get();
             // Only update fields if the new values are not null
@@ -63,6 +78,8 @@ public class OAuth2UserService extends DefaultOAuth2UserService {
             // Always update access token and expiry date as they are required for authentication
             user.setAccessToken(accessToken);
             user.setTokenExpiryDate(calculateExpiryDate(userRequest));
+            // Set here rather than in a @PreUpdate hook so other profile writes are not logins
+            user.setLastLoginAt(LocalDateTime.now());
         } else {
             user = new User();
             user.setGithubId(githubId);
@@ -84,6 +101,40 @@ public class OAuth2UserService extends DefaultOAuth2UserService {
         return oAuth2User;
     }
 
+    // Anything beyond the token and login time needs the full entity update
+    private boolean profileChanged(User user, String login, String name, String email, String avatarUrl) {
+        return (login != null && !login.equals(user.getLogin()))
+                || (name != null && !name.equals(user.getName()))
+                || (email != null && !email.equals(user.getEmail()))
+                || (avatarUrl != null && !avatarUrl.equals(user.getAvatarUrl()))
+                || user.getRoles().isEmpty();
+    }
+
+    /**
+     * Records a login with one UPDATE of the token columns and last_login_at, instead of
+     * merging the whole user and dirty-checking its collections. Nothing is written when
+     * the token is unchanged and the last login was recorded less than
+     * LAST_LOGIN_RESOLUTION ago, which absorbs repeated sign-ins during bursts.
+     */
+    private void recordLogin(User user, OAuth2UserRequest userRequest) {
+        String accessToken = userRequest.getAccessToken().getTokenValue();
+        boolean tokenChanged = !accessToken.equals(user.getAccessToken());
+        // Without a real expiry the stored default stays until the token itself changes
+        LocalDateTime tokenExpiryDate = tokenChanged || userRequest.getAccessToken().getExpiresAt() != null
+                ? calculateExpiryDate(userRequest)
+                : user.getTokenExpiryDate();
+        LocalDateTime now = LocalDateTime.now();
+        boolean loginRecentlyRecorded = user.getLastLoginAt() != null
+                && user.getLastLoginAt().isAfter(now.minus(LAST_LOGIN_RESOLUTION));
+
+        if (!tokenChanged && Objects.equals(tokenExpiryDate, user.getTokenExpiryDate()) && loginRecentlyRecorded)
+            return;
+
+        long userId = user.getId();
+        userRepository.updateLogin(userId, accessToken, tokenExpiryDate, now);
+        afterCommit(() -> entityCacheInvalidator.evict(User.class, userId));
+    }
+
     private LocalDateTime calculateExpiryDate(OAuth2UserRequest userRequest) {
         // GitHub tokens typically don't expire, but in case they have an expiration:
         if (userRequest.getAccessToken().getExpiresAt() != null) {
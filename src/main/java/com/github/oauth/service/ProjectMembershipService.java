@@ -0,0 +1,14 @@
+package com.github.oauth.service;
+
+import java.util.Collection;
+
+public interface ProjectMembershipService {
+
+    String CACHE_NAME = "projectMembership";
+
+    boolean isMember(Long projectId, Long userId);
+
+    void addMembers(Long projectId, long expectedVersion, Collection<Long> userIds);
+
+    void evictProject(Long projectId);
+}
@@ -0,0 +1,166 @@
+package com.github.oauth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a precomputed top-K list of recommended open projects per user, scored by
+ * IDF-weighted Jaccard overlap between the user's tech stack and each project's.
+ * Rare techs weigh more than ubiquitous ones. Entries are computed on first request
+ * from ProjectTechIndex, patched as the user's skills and memberships change, and
+ * dropped when any project changes. The cache is bounded by size and age, so the
+ * least recently used lists make way for active users.
+ */
+@Service
+public class ProjectRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectRecommendationService.class);
+
+    private static final Comparator<Recommendation> BEST_FIRST = Comparator
+            .comparingDouble(Recommendation::score).reversed()
+            .thenComparingLong(Recommendation::projectId);
+
+    private final ProjectTechIndex projectTechIndex;
+    private final int topK;
+
+    private final Cache<Long, UserRecommendations> recommendationsByUser;
+
+    public ProjectRecommendationService(ProjectTechIndex projectTechIndex,
+            @Value("${app.recommendations.top-k:20}") int topK,
+            @Value("${app.recommendations.max-cached-users:10000}") int maxCachedUsers,
+            @Value("${app.recommendations.ttl:10m}") Duration ttl) {
+        this.projectTechIndex = projectTechIndex;
+        this.topK = topK;
+        this.recommendationsByUser = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public record Recommendation(long projectId, double score) {
+    }
+
+    // Snapshot of the inputs a user's list was computed from, kept for incremental updates
+    private record UserRecommendations(Set<Integer> techIds, Set<Long> excludedProjectIds,
+            List<Recommendation> top) {
+    }
+
+    /**
+     * Returns the cached top-K for the user, computing it from the given inputs on a miss.
+     * {@code excludedProjectIds} supplies the projects the user already belongs to and is
+     * only invoked on a miss.
+     */
+    public List<Recommendation> recommend(long userId, Set<Integer> techIds, Supplier<Set<Long>> excludedProjectIds) {
+        if (!projectTechIndex.isReady()) {
+            logger.warn("Project tech index not ready, no recommendations for user {}", userId);
+            return List.of();
+        }
+
+        UserRecommendations cached = recommendationsByUser.getIfPresent(userId);
+        if (cached != null)
+            return cached.top();
+
+        // Computed outside the cache so the membership lookup does not hold a cache lock
+        UserRecommendations computed = compute(techIds, excludedProjectIds.get());
+        recommendationsByUser.put(userId, computed);
+        return computed.top();
+    }
+
+    public void onUserTechChanged(long userId, Set<Integer> techIds) {
+        recommendationsByUser.asMap().computeIfPresent(userId,
+                (id, current) -> compute(techIds, current.excludedProjectIds()));
+    }
+
+    public void onUserJoinedProject(long userId, long projectId) {
+        recommendationsByUser.asMap().computeIfPresent(userId, (id, current) -> {
+            Set<Long> excluded = new HashSet<>(current.excludedProjectIds());
+            excluded.add(projectId);
+            return compute(current.techIds(), excluded);
+        });
+    }
+
+    // Drops the cached list so the next request recomputes it from current inputs
+    public void evictUser(long userId) {
+        recommendationsByUser.invalidate(userId);
+    }
+
+    /**
+     * A project's techs or status feed the IDF weights every cached score depends on, so
+     * cached lists are dropped and recomputed on next request rather than patched.
+     */
+    public void onProjectChanged(long projectId) {
+        recommendationsByUser.invalidateAll();
+    }
+
+    public void onProjectRemoved(long projectId) {
+        recommendationsByUser.invalidateAll();
+    }
+
+    private UserRecommendations compute(Set<Integer> techIds, Set<Long> excludedProjectIds) {
+        Set<Integer> userTechs = Set.copyOf(techIds);
+        Set<Long> excluded = Set.copyOf(excludedProjectIds);
+        Map<Integer, Double> weights = new HashMap<>();
+
+        PriorityQueue<Recommendation> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+        Roaring64Bitmap candidates = projectTechIndex.openProjectsUsingAny(userTechs);
+        candidates.forEach(projectId -> {
+            if (excluded.contains(projectId))
+                return;
+            double score = score(userTechs, projectTechIndex.techsOf(projectId), weights);
+            Recommendation candidate = new Recommendation(projectId, score);
+            if (worstFirst.size() < topK) {
+                worstFirst.add(candidate);
+            } else if (BEST_FIRST.compare(candidate, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(candidate);
+            }
+        });
+
+        List<Recommendation> top = new ArrayList<>(worstFirst);
+        top.sort(BEST_FIRST);
+        return new UserRecommendations(userTechs, excluded, List.copyOf(top));
+    }
+
+    // Weighted Jaccard: sum of weights over the intersection divided by the union
+    private double score(Collection<Integer> userTechs, int[] projectTechs, Map<Integer, Double> weights) {
+        double intersection = 0;
+        double union = 0;
+        for (Integer techId : userTechs) {
+            union += weight(techId, weights);
+        }
+        for (int techId : projectTechs) {
+            double weight = weight(techId, weights);
+            if (userTechs.contains(techId))
+                intersection += weight;
+            else
+                union += weight;
+        }
+        return union == 0 ? 0 : intersection / union;
+    }
+
+    // Smoothed inverse document frequency across indexed projects
+    private double weight(int techId, Map<Integer, Double> weights) {
+        return weights.computeIfAbsent(techId, id -> {
+            long projects = projectTechIndex.projectCount();
+            long usingTech = Math.max(1, projectTechIndex.projectCountForTech(id));
+            return Math.log(1.0 + (double) projects / usingTech);
+        });
+    }
+}
@@ -0,0 +1,228 @@
+package com.github.oauth.service;
+
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectTechLink;
+import com.github.oauth.repository.ProjectRepository.ProjectText;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded Lucene index over project names and descriptions, with tech IDs as filter
+ * terms. Rebuilt from MySQL at startup and updated by ProjectServiceImpl after each
+ * committed project write, so text search never scans the projects table.
+ */
+@Service
+public class ProjectSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String TECH = "tech";
+
+    private final ProjectRepository projectRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // Serializes writes so a rebuild cannot interleave with incremental updates
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public ProjectSearchIndex(ProjectRepository projectRepository) throws IOException {
+        this.projectRepository = projectRepository;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public record Hit(long projectId, float score) {
+    }
+
+    public record Hits(List<Hit> hits, boolean hasMore) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Map<Long, List<Integer>> techsByProject = new HashMap<>();
+            for (ProjectTechLink link : projectRepository.findAllTechLinks()) {
+                techsByProject.computeIfAbsent(link.getProjectId(), id -> new ArrayList<>()).add(link.getTechId());
+            }
+
+            writer.deleteAll();
+            List<ProjectText> projects = projectRepository.findAllProjectText();
+            for (ProjectText project : projects) {
+                writer.addDocument(toDocument(project.getProjectId(), project.getProjectName(),
+                        project.getDescription(), techsByProject.getOrDefault(project.getProjectId(), List.of())));
+            }
+            searcherManager.maybeRefresh();
+            ready = true;
+            logger.info("Project search index built with {} projects", projects.size());
+        } catch (Exception e) {
+            ready = false;
+            logger.error("Failed to build project search index", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(long projectId, String projectName, String description, Collection<Integer> techIds) {
+        writeLock.lock();
+        try {
+            writer.updateDocument(new Term(ID, Long.toString(projectId)),
+                    toDocument(projectId, projectName, description, techIds));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index project " + projectId, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(long projectId) {
+        writeLock.lock();
+        try {
+            writer.deleteDocuments(new Term(ID, Long.toString(projectId)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove project " + projectId + " from search index", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ranked search where every query term must match the name or description exactly,
+     * as a prefix, or within a small edit distance. When {@code techIds} is non-empty,
+     * only projects using at least one of them are returned.
+     */
+    public Hits search(String text, Set<Integer> techIds, int offset, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty())
+            return new Hits(List.of(), false);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (!techIds.isEmpty()) {
+            BooleanQuery.Builder techFilter = new BooleanQuery.Builder();
+            techIds.forEach(techId -> techFilter.add(
+                    new TermQuery(new Term(TECH, techId.toString())), BooleanClause.Occur.SHOULD));
+            query.add(techFilter.build(), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // One extra hit tells whether another page exists
+                TopDocs top = searcher.search(query.build(), offset + limit + 1);
+                List<Hit> hits = new ArrayList<>();
+                ScoreDoc[] scoreDocs = top.scoreDocs;
+                for (int i = offset; i < Math.min(scoreDocs.length, offset + limit); i++) {
+                    String id = searcher.storedFields().document(scoreDocs[i].doc).get(ID);
+                    hits.add(new Hit(Long.parseLong(id), scoreDocs[i].score));
+                }
+                return new Hits(hits, scoreDocs.length > offset + limit);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Project search failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    // Exact matches rank above prefixes, which rank above typo-tolerant matches
+    private Query termQuery(String term) {
+        BooleanQuery.Builder clauses = new BooleanQuery.Builder();
+        addTermClauses(clauses, NAME, term, 3f);
+        addTermClauses(clauses, DESCRIPTION, term, 1f);
+        return clauses.build();
+    }
+
+    private void addTermClauses(BooleanQuery.Builder clauses, String field, String term, float boost) {
+        clauses.add(new BoostQuery(new TermQuery(new Term(field, term)), boost * 3), BooleanClause.Occur.SHOULD);
+        clauses.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost * 2), BooleanClause.Occur.SHOULD);
+        int maxEdits = term.length() >= 6 ? 2 : term.length() >= 3 ? 1 : 0;
+        if (maxEdits > 0) {
+            clauses.add(new BoostQuery(new FuzzyQuery(new Term(field, term), maxEdits, 1), boost),
+                    BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null)
+            return terms;
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze search text", e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(long projectId, String projectName, String description, Collection<Integer> techIds) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(projectId), Field.Store.YES));
+        document.add(new TextField(NAME, projectName == null ? "" : projectName, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, description == null ? "" : description, Field.Store.NO));
+        for (Integer techId : techIds) {
+            document.add(new StringField(TECH, techId.toString(), Field.Store.NO));
+        }
+        return document;
+    }
+}
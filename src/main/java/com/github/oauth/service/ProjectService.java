@@ -1,7 +1,10 @@
 package com.github.oauth.service;
 
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
 import com.github.oauth.payload.ProjectDTO;
+import com.github.oauth.payload.ProjectRecommendationDTO;
+import com.github.oauth.payload.TechStackPatchDTO;
 import com.github.oauth.payload.UserDTO;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,20 +13,28 @@ import java.util.Set;
 
 public interface ProjectService {
 
-    @Transactional
     ProjectDTO createNewProject(ProjectDTO projectDTO, User user);
 
     @Transactional
     ProjectDTO updateProject(ProjectDTO projectDTO, User user);
 
+    @Transactional
+    ProjectDTO updateTechStack(Long projectId, TechStackPatchDTO patch, User user);
+
     @Transactional
     String deleteProject(Long projectId, User user);
 
     List<ProjectDTO> searchProjectsByTechStack(Set<String> techNames);
 
+    CursorPage<ProjectDTO> searchProjectsByTechStack(Set<String> techNames, String cursor, int size);
+
+    CursorPage<ProjectDTO> searchProjectsByText(String query, Set<String> techNames, String cursor, int size);
+
     ProjectDTO getProjectById(Long projectId);
 
-    List<UserDTO> getProjectMembers(Long projectId);
+    List<ProjectRecommendationDTO> getRecommendedProjects(User user);
+
+    CursorPage<UserDTO> getProjectMembers(Long projectId, String cursor, int size);
 
     // private ProjectDTO convertToDTO(Project project) {
     // ProjectDTO dto = new ProjectDTO();
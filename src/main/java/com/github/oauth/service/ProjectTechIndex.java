@@ -0,0 +1,226 @@
+package com.github.oauth.service;
+
+import com.github.oauth.model.ProjectStatus;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectTechLink;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from tech ID to the set of project IDs using it.
+ * Rebuilt once from MySQL at startup and then kept current by ProjectServiceImpl
+ * after each committed create, update or delete, so tech stack ranking never
+ * needs the projects/project_tech_stack join.
+ */
+@Service
+public class ProjectTechIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectTechIndex.class);
+
+    // Ranking order: more matched techs first, then lower project ID
+    private static final Comparator<Match> RANK_ORDER = Comparator
+            .comparingInt(Match::matchCount).reversed()
+            .thenComparingLong(Match::projectId);
+
+    private final ProjectRepository projectRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Roaring64Bitmap> projectsByTech = new HashMap<>();
+    private final Map<Long, int[]> techsByProject = new HashMap<>();
+    private final Roaring64Bitmap openProjects = new Roaring64Bitmap();
+    private volatile boolean ready;
+
+    public ProjectTechIndex(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    public record Match(long projectId, int matchCount) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Hold the write lock for the whole load so that commits racing with the
+        // rebuild are applied after it rather than being overwritten by it
+        lock.writeLock().lock();
+        try {
+            List<ProjectTechLink> links = projectRepository.findAllTechLinks();
+            projectsByTech.clear();
+            techsByProject.clear();
+            openProjects.clear();
+
+            Map<Long, List<Integer>> grouped = new HashMap<>();
+            for (ProjectTechLink link : links) {
+                grouped.computeIfAbsent(link.getProjectId(), id -> new ArrayList<>()).add(link.getTechId());
+                if (link.getProjectStatus() == ProjectStatus.OPEN)
+                    openProjects.addLong(link.getProjectId());
+            }
+            grouped.forEach(this::put);
+
+            ready = true;
+            logger.info("Project tech index built with {} projects across {} techs",
+                    techsByProject.size(), projectsByTech.size());
+        } catch (Exception e) {
+            ready = false;
+            logger.error("Failed to build project tech index, falling back to database search", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(long projectId, Collection<Integer> techIds, boolean open) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(projectId);
+            put(projectId, techIds);
+            if (open && !techIds.isEmpty())
+                openProjects.addLong(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long projectId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks projects by how many of the given techs they use and returns up to
+     * {@code limit} matches strictly after the (matchCount, projectId) keyset position.
+     */
+    public List<Match> rankAfter(Collection<Integer> techIds, long afterMatchCount, long afterProjectId, int limit) {
+        Map<Long, Integer> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Integer techId : techIds) {
+                Roaring64Bitmap projects = projectsByTech.get(techId);
+                if (projects != null) {
+                    projects.forEach(projectId -> counts.merge(projectId, 1, Integer::sum));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Bounded heap keeps the worst of the current top `limit` at its head
+        PriorityQueue<Match> top = new PriorityQueue<>(RANK_ORDER.reversed());
+        counts.forEach((projectId, count) -> {
+            if (count > afterMatchCount || (count == afterMatchCount && projectId <= afterProjectId))
+                return;
+            Match match = new Match(projectId, count);
+            if (top.size() < limit) {
+                top.add(match);
+            } else if (RANK_ORDER.compare(match, top.peek()) < 0) {
+                top.poll();
+                top.add(match);
+            }
+        });
+
+        List<Match> ranked = new ArrayList<>(top);
+        ranked.sort(RANK_ORDER);
+        return ranked;
+    }
+
+    // Open projects sharing at least one of the given techs
+    public Roaring64Bitmap openProjectsUsingAny(Collection<Integer> techIds) {
+        Roaring64Bitmap candidates = new Roaring64Bitmap();
+        lock.readLock().lock();
+        try {
+            for (Integer techId : techIds) {
+                Roaring64Bitmap projects = projectsByTech.get(techId);
+                if (projects != null)
+                    candidates.or(projects);
+            }
+            candidates.and(openProjects);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return candidates;
+    }
+
+    public boolean isOpen(long projectId) {
+        lock.readLock().lock();
+        try {
+            return openProjects.contains(projectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] techsOf(long projectId) {
+        lock.readLock().lock();
+        try {
+            int[] techIds = techsByProject.get(projectId);
+            return techIds == null ? new int[0] : techIds.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long projectCount() {
+        lock.readLock().lock();
+        try {
+            return techsByProject.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of indexed projects using the tech, i.e. its document frequency
+    public long projectCountForTech(int techId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap projects = projectsByTech.get(techId);
+            return projects == null ? 0 : projects.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long projectId, Collection<Integer> techIds) {
+        if (techIds.isEmpty())
+            return;
+        int[] ids = techIds.stream().mapToInt(Integer::intValue).distinct().toArray();
+        techsByProject.put(projectId, ids);
+        for (int techId : ids) {
+            projectsByTech.computeIfAbsent(techId, id -> new Roaring64Bitmap()).addLong(projectId);
+        }
+    }
+
+    private void removeUnlocked(long projectId) {
+        openProjects.removeLong(projectId);
+        int[] previous = techsByProject.remove(projectId);
+        if (previous == null)
+            return;
+        for (int techId : previous) {
+            Roaring64Bitmap projects = projectsByTech.get(techId);
+            if (projects != null) {
+                projects.removeLong(projectId);
+                if (projects.isEmpty())
+                    projectsByTech.remove(techId);
+            }
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.github.oauth.service;
 
 import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
+import com.github.oauth.repository.TaskDocumentRepository.VersionedTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,6 +21,9 @@ public class PullRequestPollingService {
     private static final Logger logger = LoggerFactory.getLogger(PullRequestPollingService.class);
     private final GitHubService githubService;
     private final TaskService taskService;
+    // The virtual-thread scheduler starts every fixed-rate run on a new thread, so a slow
+    // run could otherwise overlap the next one
+    private final AtomicBoolean running = new AtomicBoolean();
 
     public PullRequestPollingService(GitHubService githubService, TaskService taskService) {
         this.githubService = githubService;
@@ -23,13 +32,22 @@ public class PullRequestPollingService {
 
     @Scheduled(fixedRate = 10000) // Run every 10 seconds
     public void checkPullRequests() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Previous pull request status check still running, skipping this run");
+            return;
+        }
         try {
             logger.info("Starting pull request status check");
             // Get all tasks with REQUEST_COMPLETE status
-            List<Task> pendingTasks = taskService.getTasksByStatus("REQUEST_COMPLETE");
-            logger.info("Found {} tasks in REQUEST_COMPLETE status", pendingTasks.size());
+            List<VersionedTask> pendingTasks = taskService.getTasksAwaitingVerdict();
 
-            for (Task task : pendingTasks) {
+            // Results are written together once every task has been checked
+            List<VersionedTask> checked = new ArrayList<>();
+            Map<String, TaskStatus> verdicts = new HashMap<>();
+            // Tasks of one project share a creator, so each token is looked up once per run
+            Map<Long, String> tokensByProject = new HashMap<>();
+            for (VersionedTask pending : pendingTasks) {
+                Task task = pending.task();
                 try {
                     logger.debug("Processing task: {}", task.getId());
                     String prUrl = task.getPullRequestUrl();
@@ -38,8 +56,9 @@ public class PullRequestPollingService {
                         continue;
                     }
 
-                    // Get the task creator's access token
-                    String accessToken = taskService.getTaskCreatorAccessToken(task.getId());
+                    // Get the task creator's access token from the task already in hand
+                    String accessToken = tokensByProject.computeIfAbsent(task.getProjectId(),
+                            taskService::getProjectCreatorAccessToken);
                     if (accessToken == null) {
                         logger.error("No access token found for task creator: {}", task.getId());
                         continue;
@@ -65,7 +84,7 @@ public class PullRequestPollingService {
 
                     if (isMerged) {
                         logger.info("PR merged for task {}, updating status to COMPLETED", task.getId());
-                        taskService.updateTaskStatusById(task.getId(), "COMPLETED");
+                        verdicts.put(task.getId(), TaskStatus.COMPLETED);
                     } else {
                         // Check if PR is closed but not merged
                         boolean isClosed = githubService.isPullRequestClosed(
@@ -78,23 +97,24 @@ public class PullRequestPollingService {
                         
                         if (isClosed) {
                             logger.info("PR closed without merge for task {}, updating status to REQUEST_REJECTED", task.getId());
-                            taskService.updateTaskStatusById(task.getId(), "REQUEST_REJECTED");
+                            verdicts.put(task.getId(), TaskStatus.REQUEST_REJECTED);
                         }
                     }
 
-                    // Update last checked timestamp
-                    taskService.updateLastChecked(task.getId());
-                    logger.debug("Updated last checked timestamp for task {}", task.getId());
+                    checked.add(pending);
 
                 } catch (Exception e) {
                     logger.error("Error checking PR status for task {}: {}", task.getId(), e.getMessage(), e);
                     logger.error("Stack trace: ", e);
                 }
             }
+            taskService.recordPollResults(checked, verdicts);
             logger.info("Completed pull request status check");
         } catch (Exception e) {
             logger.error("Error in pull request polling service: {}", e.getMessage(), e);
             logger.error("Stack trace: ", e);
+        } finally {
+            running.set(false);
         }
     }
 
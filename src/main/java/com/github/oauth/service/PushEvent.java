@@ -0,0 +1,19 @@
+package com.github.oauth.service;
+
+import java.util.Set;
+
+/**
+ * Something clients should see without re-polling. Delivered to every stream watching
+ * {@code projectId} and to the streams of the listed users; a stream matching both gets
+ * it once. {@code data} is sent as the JSON body of the SSE event named {@code type}.
+ */
+public record PushEvent(String type, Long projectId, Set<Long> userIds, Object data) {
+
+    public static PushEvent toProject(String type, long projectId, Object data) {
+        return new PushEvent(type, projectId, Set.of(), data);
+    }
+
+    public static PushEvent toUser(String type, long userId, Object data) {
+        return new PushEvent(type, null, Set.of(userId), data);
+    }
+}
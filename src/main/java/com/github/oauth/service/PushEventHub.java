@@ -0,0 +1,235 @@
+package com.github.oauth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.oauth.config.ClusterBroadcast;
+import com.github.oauth.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams per user, optionally also watching projects. Events published
+ * here go to this instance's matching streams and, through ClusterBroadcast, to the other
+ * instances' streams. Publishing never blocks on a client: each stream has its own
+ * bounded queue drained on the push executor, and a stream that falls too far behind is
+ * closed so the client reconnects and reloads rather than holding a thread.
+ */
+@Service
+public class PushEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushEventHub.class);
+
+    private static final String TOPIC = "push:event";
+    private static final Outgoing HEARTBEAT = new Outgoing(null, null, "heartbeat");
+
+    private final ClusterBroadcast clusterBroadcast;
+    private final ObjectMapper objectMapper;
+    private final Executor pushExecutor;
+    private final Executor pushRelayExecutor;
+    private final int maxConnections;
+    private final int maxQueuedEvents;
+    private final Duration streamTimeout;
+
+    private final Map<Long, Set<Stream>> streamsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Stream>> streamsByProject = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public PushEventHub(ClusterBroadcast clusterBroadcast, ObjectMapper objectMapper,
+            @Qualifier("pushExecutor") Executor pushExecutor,
+            @Qualifier("pushRelayExecutor") Executor pushRelayExecutor, MeterRegistry meterRegistry,
+            @Value("${app.push.max-connections:10000}") int maxConnections,
+            @Value("${app.push.max-queued-events:256}") int maxQueuedEvents,
+            @Value("${app.push.stream-timeout:30m}") Duration streamTimeout) {
+        this.clusterBroadcast = clusterBroadcast;
+        this.objectMapper = objectMapper;
+        this.pushExecutor = pushExecutor;
+        this.pushRelayExecutor = pushRelayExecutor;
+        this.maxConnections = maxConnections;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.streamTimeout = streamTimeout;
+        Gauge.builder("push.connections", connections, AtomicInteger::get)
+                .description("Open server-sent event streams on this instance")
+                .register(meterRegistry);
+        clusterBroadcast.onBroadcast(TOPIC, this::onRelayed);
+    }
+
+    /**
+     * Opens a stream for the user's own events plus those of the given projects. The caller
+     * checks project access. Throws CapacityExceededException when this instance is full.
+     */
+    public SseEmitter subscribe(long userId, Set<Long> projectIds) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new CapacityExceededException("Too many open event streams");
+        }
+        Stream stream = new Stream(userId, Set.copyOf(projectIds), new SseEmitter(streamTimeout.toMillis()));
+        stream.emitter.onCompletion(() -> remove(stream));
+        stream.emitter.onTimeout(() -> remove(stream));
+        stream.emitter.onError(error -> remove(stream));
+
+        streamsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(stream);
+        for (Long projectId : stream.projectIds) {
+            streamsByProject.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).add(stream);
+        }
+        // Tells the client the stream is live, and flushes the response headers
+        stream.enqueue(new Outgoing("ready", Map.of("projectIds", stream.projectIds), null));
+        return stream.emitter;
+    }
+
+    // Delivers here and on every other instance; safe to call from Firestore callbacks
+    public void publish(PushEvent event) {
+        deliver(event.type(), event.projectId(), event.userIds(), event.data());
+        // The relay may be a Redis round trip, so it leaves the caller's thread
+        pushRelayExecutor.execute(() -> {
+            try {
+                clusterBroadcast.broadcast(TOPIC, objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to relay push event {}: {}", event.type(), e.getMessage());
+            }
+        });
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedRateString = "${app.push.heartbeat-interval:25000}")
+    public void heartbeat() {
+        for (Set<Stream> streams : streamsByUser.values()) {
+            streams.forEach(stream -> stream.enqueue(HEARTBEAT));
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+    }
+
+    private void onRelayed(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            Set<Long> userIds = new HashSet<>();
+            event.path("userIds").forEach(userId -> userIds.add(userId.asLong()));
+            JsonNode projectId = event.path("projectId");
+            deliver(event.path("type").asText(), projectId.isNumber() ? projectId.asLong() : null, userIds,
+                    event.path("data"));
+        } catch (IOException e) {
+            logger.error("Dropped unreadable push event from another instance: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(String type, Long projectId, Set<Long> userIds, Object data) {
+        Set<Stream> recipients = new HashSet<>();
+        if (projectId != null)
+            recipients.addAll(streamsByProject.getOrDefault(projectId, Set.of()));
+        for (Long userId : userIds) {
+            recipients.addAll(streamsByUser.getOrDefault(userId, Set.of()));
+        }
+        if (recipients.isEmpty())
+            return;
+        Outgoing event = new Outgoing(type, data, null);
+        recipients.forEach(stream -> stream.enqueue(event));
+    }
+
+    private void remove(Stream stream) {
+        if (!stream.closed.compareAndSet(false, true))
+            return;
+        connections.decrementAndGet();
+        removeFrom(streamsByUser, stream.userId, stream);
+        stream.projectIds.forEach(projectId -> removeFrom(streamsByProject, projectId, stream));
+    }
+
+    private static void removeFrom(Map<Long, Set<Stream>> index, Long key, Stream stream) {
+        index.computeIfPresent(key, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    // SseEventBuilder is single-use, so streams queue this and build at send time
+    private record Outgoing(String name, Object data, String comment) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return comment != null ? SseEmitter.event().comment(comment) : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private final class Stream {
+
+        private final long userId;
+        private final Set<Long> projectIds;
+        private final SseEmitter emitter;
+        private final Queue<Outgoing> pending = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Stream(long userId, Set<Long> projectIds, SseEmitter emitter) {
+            this.userId = userId;
+            this.projectIds = projectIds;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Outgoing event) {
+            if (closed.get())
+                return;
+            boolean overflow;
+            synchronized (pending) {
+                overflow = pending.size() >= maxQueuedEvents;
+                if (!overflow)
+                    pending.add(event);
+            }
+            if (overflow) {
+                logger.warn("Event stream of user {} fell {} events behind, closing it", userId, maxQueuedEvents);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            // At most one drain per stream at a time, so its events stay in order
+            if (draining.compareAndSet(false, true))
+                pushExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing event;
+                synchronized (pending) {
+                    event = pending.poll();
+                    if (event == null) {
+                        draining.set(false);
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter's completion callback may not fire for a broken pipe
+                    remove(this);
+                    emitter.completeWithError(e);
+                    synchronized (pending) {
+                        pending.clear();
+                        draining.set(false);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.oauth.service;
+
+import com.github.oauth.repository.TaskDocumentRepository;
+import com.github.oauth.repository.Ulid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * One-off move of tasks stored under the old {@code assignedTo_details_projectId} IDs to
+ * ULIDs. Enable with {@code app.migrations.task-ids=true} on a single instance; it walks the
+ * Tasks collection once after startup on the background scheduler, so the instance serves
+ * requests meanwhile, and is safe to re-run since ULID documents are skipped and tasks that
+ * change mid-move are left for the next run. Old IDs still resolve through
+ * {@link TaskDocumentRepository#findById}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.migrations.task-ids", havingValue = "true")
+public class TaskIdMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskIdMigration.class);
+    private static final int PAGE_SIZE = 200;
+
+    private final TaskDocumentRepository taskDocumentRepository;
+    private final Executor backgroundExecutor;
+
+    public TaskIdMigration(TaskDocumentRepository taskDocumentRepository,
+            @Qualifier("taskScheduler") Executor backgroundExecutor) {
+        this.taskDocumentRepository = taskDocumentRepository;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        backgroundExecutor.execute(this::migrate);
+    }
+
+    void migrate() {
+        int moved = 0;
+        int skipped = 0;
+        String after = null;
+        List<String> page;
+        do {
+            page = taskDocumentRepository.findIdsAfter(after, PAGE_SIZE).join();
+            for (String taskId : page) {
+                if (Ulid.isUlid(taskId))
+                    continue;
+                try {
+                    Optional<String> newId = taskDocumentRepository.moveToUlid(taskId).join();
+                    if (newId.isPresent()) {
+                        logger.debug("Moved task {} to {}", taskId, newId.get());
+                        moved++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Could not move task {}, leaving it for the next run: {}", taskId, e.getMessage());
+                    skipped++;
+                }
+            }
+            if (!page.isEmpty())
+                after = page.get(page.size() - 1);
+        } while (page.size() == PAGE_SIZE);
+        logger.info("Task ID migration finished: {} moved, {} left for the next run", moved, skipped);
+    }
+}
@@ -1,27 +1,34 @@
 package com.github.oauth.service;
 
 import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.repository.TaskDocumentRepository.VersionedTask;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface TaskService {
-    Task assignTask(Task task, User creator);
+    CompletableFuture<Task> assignTask(Task task, User creator);
 
-    Task updateTaskStatus(Task task, User assignedUser);
+    CompletableFuture<Task> updateTaskStatus(Task task, User assignedUser);
 
-    Task updateTaskCompletion(Task task, User creator);
+    CompletableFuture<Task> updateTaskCompletion(Task task, User creator);
 
-    void deleteTask(String taskId, User user);
+    CompletableFuture<Task> getTask(String taskId, User user);
 
-    List<Task> getTasksByStatus(String status);
+    CompletableFuture<Void> deleteTask(String taskId, User user);
 
-    void updateLastChecked(String taskId);
+    List<VersionedTask> getTasksAwaitingVerdict();
 
-    Task getTaskById(String taskId);
+    void recordPollResults(List<VersionedTask> checked, Map<String, TaskStatus> verdicts);
+
+    CompletableFuture<CursorPage<Task>> getProjectTasks(Long projectId, String status, String cursor, int size, User user);
 
-    Task updateTaskStatusById(String taskId, String status);
+    CompletableFuture<CursorPage<Task>> getAssignedTasks(User user, String status, String cursor, int size);
 
-    Task findById(String id);
+    Task getTaskById(String taskId);
 
-    String getTaskCreatorAccessToken(String taskId);
+    String getProjectCreatorAccessToken(Long projectId);
 }
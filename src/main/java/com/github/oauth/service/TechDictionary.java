@@ -0,0 +1,118 @@
+package com.github.oauth.service;
+
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.Tech;
+import com.github.oauth.repository.TechRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Preloaded name/ID lookup for the tech vocabulary. Reads go against an immutable
+ * snapshot that is swapped on refresh, so they never block and never query MySQL
+ * for known names. Unknown names fall back to one bulk query, which also picks up
+ * techs added through another instance.
+ */
+@Service
+public class TechDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(TechDictionary.class);
+
+    private final TechRepository techRepository;
+
+    // A lock rather than synchronized: refresh holds it across a query, which would pin a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Map<String, Tech> techsByName;
+
+    public TechDictionary(TechRepository techRepository) {
+        this.techRepository = techRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        writeLock.lock();
+        try {
+            Map<String, Tech> loaded = techRepository.findAll().stream()
+                    .collect(Collectors.toMap(Tech::getTechName, tech -> tech, (first, second) -> first));
+            techsByName = Map.copyOf(loaded);
+            logger.info("Tech dictionary loaded with {} techs", loaded.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void register(Collection<Tech> techs) {
+        writeLock.lock();
+        try {
+            Map<String, Tech> updated = new HashMap<>(snapshot());
+            techs.forEach(tech -> updated.put(tech.getTechName(), tech));
+            techsByName = Map.copyOf(updated);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Optional<Tech> find(String techName) {
+        return Optional.ofNullable(snapshot().get(techName)).map(TechDictionary::copy);
+    }
+
+    /**
+     * Resolves every name to its Tech, querying MySQL at most once for names not yet known.
+     * Throws ResourceNotFound naming the first unknown tech.
+     */
+    public Set<Tech> resolve(Collection<String> techNames) {
+        Map<String, Tech> known = snapshot();
+        Set<Tech> resolved = new HashSet<>();
+        Set<String> missing = new HashSet<>();
+        for (String techName : techNames) {
+            Tech tech = known.get(techName);
+            if (tech == null)
+                missing.add(techName);
+            else
+                resolved.add(copy(tech));
+        }
+
+        if (!missing.isEmpty()) {
+            List<Tech> found = techRepository.findByTechNameIn(missing);
+            register(found);
+            found.forEach(tech -> {
+                missing.remove(tech.getTechName());
+                resolved.add(copy(tech));
+            });
+            if (!missing.isEmpty())
+                throw new ResourceNotFound("Tech not found " + missing.iterator().next());
+        }
+        return resolved;
+    }
+
+    public Set<Integer> resolveIds(Collection<String> techNames) {
+        return resolve(techNames).stream().map(Tech::getId).collect(Collectors.toSet());
+    }
+
+    private Map<String, Tech> snapshot() {
+        Map<String, Tech> current = techsByName;
+        if (current == null) {
+            // Requests can arrive before ApplicationReadyEvent
+            refresh();
+            current = techsByName;
+        }
+        return current;
+    }
+
+    // Callers get their own detached instance so nobody can mutate the shared snapshot
+    private static Tech copy(Tech tech) {
+        return new Tech(tech.getId(), tech.getTechName());
+    }
+}
@@ -1,13 +1,20 @@
 package com.github.oauth.service.impl;
 
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.exception.ResourceNotFound;
 import com.github.oauth.model.Message;
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.MessageDTO;
+import com.github.oauth.payload.TimestampCursor;
+import com.github.oauth.repository.MessageDocumentRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.Ulid;
 import com.github.oauth.service.MessageService;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.WriteResult;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentSnapshot;
+import com.github.oauth.service.MessageWriteBuffer;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.PushEvent;
+import com.github.oauth.service.PushEventHub;
 import com.google.cloud.Timestamp;
 
 
@@ -16,73 +23,130 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class MessageServiceImpl implements MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageServiceImpl.class);
+    private static final int DEFAULT_MESSAGE_PAGE_SIZE = 50;
+    private static final int MAX_MESSAGE_PAGE_SIZE = 200;
 
-    private Firestore firestore;
+    private MessageDocumentRepository messageDocumentRepository;
 
+    private PushEventHub pushEventHub;
 
-    public MessageServiceImpl(Firestore firestore) {
-        this.firestore = firestore;
+    private ProjectRepository projectRepository;
+
+    private ProjectMembershipService projectMembershipService;
+
+    private MessageWriteBuffer messageWriteBuffer;
+
+
+    public MessageServiceImpl(MessageDocumentRepository messageDocumentRepository, PushEventHub pushEventHub,
+            ProjectRepository projectRepository, ProjectMembershipService projectMembershipService,
+            MessageWriteBuffer messageWriteBuffer) {
+        this.messageDocumentRepository = messageDocumentRepository;
+        this.pushEventHub = pushEventHub;
+        this.projectRepository = projectRepository;
+        this.projectMembershipService = projectMembershipService;
+        this.messageWriteBuffer = messageWriteBuffer;
     }
 
     @Override
-    public String addMessage(Message message, User user) {
-        try {
-            // Create a unique document ID
-            String docId = user.getId() + "_" + message.getMessage() + "_" + message.getProjectId();
-            
-            // Create message data
-            Map<String, Object> messageData = new HashMap<>();
-            messageData.put("senderId", user.getId());
-            messageData.put("projectId", message.getProjectId());
-            messageData.put("message", message.getMessage());
-            messageData.put("timestamp", Timestamp.now());
-
-            // Save to Firestore
-            DocumentReference docRef = firestore.collection("Messages").document(docId);
-            ApiFuture<WriteResult> result = docRef.set(messageData);
-            
-            logger.info("Message saved successfully with ID: {}", docId);
-            return "Message saved with updateTime: " + result.get().getUpdateTime();
-        } catch (Exception e) {
-            logger.error("Error saving message", e);
-            throw new RuntimeException("Failed to save message", e);
-        }
+    public CompletableFuture<String> addMessage(Message message, User user) {
+        if (message.getProjectId() == null || message.getMessage() == null || message.getMessage().isBlank())
+            throw new GeneralException("Project ID and message are required");
+        // Checked before buffering: once queued, the message is written and pushed to the project
+        if (!projectMembershipService.isMember(message.getProjectId(), user.getId()))
+            throw new GeneralException("You are not a member of this project");
+
+        // Time-ordered ID: fixed length, no user text, unique for repeated messages
+        String docId = Ulid.next();
+
+        // Create message data
+        Map<String, Object> messageData = new HashMap<>();
+        messageData.put("senderId", user.getId());
+        messageData.put("projectId", message.getProjectId());
+        messageData.put("message", message.getMessage());
+        messageData.put("timestamp", Timestamp.now());
+
+        // Acknowledged once buffered; listeners hear about it after the batch holding it commits,
+        // and the sender is told if it could not be written after all
+        messageWriteBuffer.enqueue(docId, messageData).whenComplete((written, error) -> {
+            if (error == null) {
+                Map<String, Object> created = new HashMap<>(messageData);
+                created.put("messageId", docId);
+                pushEventHub.publish(PushEvent.toProject("message.created", message.getProjectId(), created));
+            } else {
+                pushEventHub.publish(PushEvent.toUser("message.failed", user.getId(),
+                        Map.of("messageId", docId, "projectId", message.getProjectId())));
+            }
+        });
+        logger.info("Message queued with ID: {}", docId);
+        return CompletableFuture.completedFuture("Message accepted with messageId: " + docId);
     }
 
     @Override
-    public String deleteMessage(String messageId, User user) {
-        try {
-            // Get the message document
-            DocumentReference docRef = firestore.collection("Messages").document(messageId);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
-
-            if (!document.exists()) {
-                logger.warn("Message not found with ID: {}", messageId);
-                return "Message not found";
-            }
+    public CompletableFuture<String> deleteMessage(String messageId, User user) {
+        // A message still in the write buffer is deleted once it lands
+        CompletableFuture<Void> written = messageWriteBuffer.pendingWrite(messageId)
+                .map(write -> write.exceptionally(error -> null))
+                .orElse(CompletableFuture.completedFuture(null));
+        return written.thenCompose(ignored -> messageDocumentRepository.findById(messageId))
+                .thenCompose(document -> {
+                    if (document.isEmpty()) {
+                        logger.warn("Message not found with ID: {}", messageId);
+                        return CompletableFuture.completedFuture("Message not found");
+                    }
 
-            // Check if the user is the sender
-            Long senderId = document.getLong("senderId");
-            if (!user.getId().equals(senderId)) {
-                logger.warn("User {} attempted to delete message sent by {}", user.getId(), senderId);
-                return "You can only delete your own messages";
-            }
+                    // Check if the user is the sender
+                    Long senderId = document.get().getLong("senderId");
+                    if (!user.getId().equals(senderId)) {
+                        logger.warn("User {} attempted to delete message sent by {}", user.getId(), senderId);
+                        return CompletableFuture.completedFuture("You can only delete your own messages");
+                    }
+
+                    // Delete the message
+                    Long projectId = document.get().getLong("projectId");
+                    return messageDocumentRepository.delete(messageId)
+                            .thenApply(deleted -> {
+                                logger.info("Message deleted successfully with ID: {}", messageId);
+                                if (projectId != null)
+                                    pushEventHub.publish(PushEvent.toProject("message.deleted", projectId,
+                                            Map.of("messageId", messageId, "projectId", projectId)));
+                                return "Message deleted successfully";
+                            });
+                });
+    }
+
+    @Override
+    public CompletableFuture<CursorPage<MessageDTO>> getProjectMessages(Long projectId, String cursor, int size,
+            User user) {
+        if (!projectRepository.existsById(projectId))
+            throw new ResourceNotFound("Project not found with ID: " + projectId);
+        if (!projectMembershipService.isMember(projectId, user.getId()))
+            throw new GeneralException("You are not a member of this project");
+
+        int pageSize = size <= 0 ? DEFAULT_MESSAGE_PAGE_SIZE : Math.min(size, MAX_MESSAGE_PAGE_SIZE);
+        TimestampCursor position = TimestampCursor.decode(cursor, "message");
 
-            // Delete the message
-            // ApiFuture<WriteResult> result = docRef.delete();
-            docRef.delete();
-            logger.info("Message deleted successfully with ID: {}", messageId);
-            return "Message deleted successfully";
-        } catch (Exception e) {
-            logger.error("Error deleting message", e);
-            throw new RuntimeException("Failed to delete message", e);
-        }
+        // Newest first; the cursor walks back in time. One extra document tells whether more exist
+        return messageDocumentRepository.findNewestFirst(projectId,
+                position == null ? null : position.timestamp(),
+                position == null ? null : position.id(),
+                pageSize + 1)
+                .thenApply(messages -> {
+                    boolean hasNext = messages.size() > pageSize;
+                    List<MessageDTO> content = hasNext ? messages.subList(0, pageSize) : messages;
+                    String nextCursor = null;
+                    if (hasNext) {
+                        MessageDTO last = content.get(content.size() - 1);
+                        nextCursor = new TimestampCursor(last.getTimestamp(), last.getMessageId()).encode();
+                    }
+                    return new CursorPage<>(content, pageSize, nextCursor);
+                });
     }
 }
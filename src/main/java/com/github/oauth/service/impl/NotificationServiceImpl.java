@@ -1,19 +1,20 @@
 package com.github.oauth.service.impl;
 
-
-
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
-
 import com.github.oauth.exception.GeneralException;
 import com.github.oauth.exception.ResourceNotFound;
-import com.github.oauth.model.Project;
 import com.github.oauth.model.ProjectJoinRequest;
 import com.github.oauth.model.User;
+import com.github.oauth.repository.JoinRequestDocumentRepository;
 import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
 import com.github.oauth.repository.UserRepository;
 import com.github.oauth.service.NotificationService;
 import com.github.oauth.service.GitHubService;
+import com.github.oauth.service.ClusterIndexSync;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.PushEvent;
+import com.github.oauth.service.PushEventHub;
 
 import jakarta.transaction.Transactional;
 
@@ -22,7 +23,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.oauth.service.TransactionHooks.afterCommit;
 
 
 @Service
@@ -30,7 +35,7 @@ public class NotificationServiceImpl implements  NotificationService{
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
-    private Firestore firestore;
+    private JoinRequestDocumentRepository joinRequestDocumentRepository;
 
     private UserRepository userRepository;
 
@@ -38,53 +43,60 @@ public class NotificationServiceImpl implements  NotificationService{
 
     private GitHubService githubService;
 
-    public NotificationServiceImpl(Firestore firestore, UserRepository userRepository,  ProjectRepository projectRepository, GitHubService githubService){
+    private ProjectRecommendationService projectRecommendationService;
+
+    private ProjectMembershipService projectMembershipService;
+
+    private ClusterIndexSync clusterIndexSync;
+
+    private PushEventHub pushEventHub;
+
+    public NotificationServiceImpl(JoinRequestDocumentRepository joinRequestDocumentRepository, UserRepository userRepository,  ProjectRepository projectRepository, GitHubService githubService,
+            ProjectRecommendationService projectRecommendationService, ProjectMembershipService projectMembershipService,
+            ClusterIndexSync clusterIndexSync, PushEventHub pushEventHub){
         this.userRepository = userRepository;
-        this.firestore = firestore;
+        this.joinRequestDocumentRepository = joinRequestDocumentRepository;
         this.projectRepository = projectRepository;
         this.githubService = githubService;
+        this.projectRecommendationService = projectRecommendationService;
+        this.projectMembershipService = projectMembershipService;
+        this.clusterIndexSync = clusterIndexSync;
+        this.pushEventHub = pushEventHub;
     }
 
     @Override
-    public String addRequest(ProjectJoinRequest joinRequest, User user) {
+    public CompletableFuture<String> addRequest(ProjectJoinRequest joinRequest, User user) {
 
         Long projectId = joinRequest.getProjectId();
         if(projectId == null) throw new GeneralException("Project Id is null");
 
-        Project project = projectRepository.findById(projectId)
-                    .orElseThrow(()-> new ResourceNotFound("Project not found with projectId: "+ projectId));
-
-        if(project.getMembers().contains(user)) throw new GeneralException("User already part of the project");
-
-        try {
-            // Check if user has already sent a "PENDING" request
-            Query query = firestore.collection("ProjectJoinRequests")
-                    .whereEqualTo("projectId", projectId)
-                    .whereEqualTo("userId", user.getId())
-                    .whereEqualTo("status", "PENDING");
-
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-            if (!querySnapshot.get().isEmpty()) {
-                return "You have already sent a join request for this project.";
-            }
-
-            // If both conditions pass, create a new join request
-            joinRequest.setStatus("PENDING");
-            joinRequest.setUserId(user.getId());
-            joinRequest.setTimeStamp(new Date());
-
-            String docId = user.getId() + "_" + projectId;
-
-            DocumentReference documentReference = firestore.collection("ProjectJoinRequests").document(docId);
-            WriteResult result = documentReference.set(joinRequest).get();
-
-            return "Document saved with updateTime: " + result.getUpdateTime() + " customId: "+docId;
-        }
-        catch (Exception e) {
-            System.out.println("Notification service exception: " + e.getMessage());
-            throw new GeneralException("Error processing join request");
-        }
-
+        // The header also gives the creator to notify
+        Long creatorId = projectRepository.findHeaderByProjectId(projectId)
+                .orElseThrow(() -> new ResourceNotFound("Project not found with projectId: "+ projectId))
+                .getCreatorId();
+
+        if(projectMembershipService.isMember(projectId, user.getId())) throw new GeneralException("User already part of the project");
+
+        // Check if user has already sent a "PENDING" request
+        return joinRequestDocumentRepository.hasPending(projectId, user.getId())
+                .thenCompose(pending -> {
+                    if (pending)
+                        return CompletableFuture.completedFuture("You have already sent a join request for this project.");
+
+                    // If both conditions pass, create a new join request
+                    joinRequest.setStatus("PENDING");
+                    joinRequest.setUserId(user.getId());
+                    joinRequest.setTimeStamp(new Date());
+
+                    String docId = user.getId() + "_" + projectId;
+                    return joinRequestDocumentRepository.save(docId, joinRequest)
+                            .thenApply(result -> {
+                                pushEventHub.publish(PushEvent.toUser("join-request.created", creatorId,
+                                        Map.of("projectId", projectId, "userId", user.getId())));
+                                return "Document saved with updateTime: " + result.getUpdateTime()
+                                        + " customId: " + docId;
+                            });
+                });
     }
 
     @Override
@@ -94,48 +106,65 @@ public class NotificationServiceImpl implements  NotificationService{
         if (projectId == null) throw new GeneralException("Project Id is null");
 
         logger.info("Fetching project with ID: {}", projectId);
-        Project project = projectRepository.findById(projectId)
+        // Creator, version and name are all this needs, so neither the project nor the user is loaded
+        ProjectHeader project = projectRepository.findHeaderByProjectId(projectId)
                 .orElseThrow(() -> new ResourceNotFound("Project not found with projectId " + projectId));
 
         logger.info("Checking if creator is valid");
-        if (!project.getCreator().getId().equals(creator.getId()))
+        if (!project.getCreatorId().equals(creator.getId()))
             return "You are not the creator of the project";
 
-        logger.info("Fetching user with ID: {}", joinRequest.getUserId());
-        User user = userRepository.findById(joinRequest.getUserId())
-                .orElseThrow(() -> new ResourceNotFound("User not found with userId: " + joinRequest.getUserId()));
+        Long userId = joinRequest.getUserId();
+        logger.info("Fetching user with ID: {}", userId);
+        String login = userRepository.findLoginById(userId)
+                .orElseThrow(() -> new ResourceNotFound("User not found with userId: " + userId));
 
         logger.info("Checking if user is already in the project");
-        if (project.getMembers().contains(user))
+        if (projectMembershipService.isMember(projectId, userId))
             return "User is already a member of the project";
 
         if(joinRequest.getStatus().equals("ACCEPTED")){
             logger.info("Adding user to project members");
-            project.getMembers().add(user);
-            projectRepository.save(project);
-            user.getProjects().add(project);
-
-            // Add user as collaborator to GitHub repository
-            try {
-                String repoName = project.getProjectName().toLowerCase().replaceAll("\\s+", "-");
-                githubService.addCollaborator(repoName, user.getLogin());
-                logger.info("Added user {} as collaborator to repository {}", user.getLogin(), repoName);
-            } catch (Exception e) {
-                logger.error("Failed to add user as collaborator: {}", e.getMessage());
-                // Continue with the rest of the process even if GitHub collaboration fails
-            }
+            // Inserts the single join row instead of rewriting the members collection
+            projectMembershipService.addMembers(projectId, project.getVersion(), List.of(userId));
+            afterCommit(() -> {
+                projectRecommendationService.onUserJoinedProject(userId, projectId);
+                clusterIndexSync.userChanged(userId);
+            });
+
+            // Add user as collaborator to GitHub repository once the membership is committed,
+            // so the slow GitHub call never holds a pooled connection
+            String repoName = project.getProjectName().toLowerCase().replaceAll("\\s+", "-");
+            afterCommit(() -> {
+                try {
+                    githubService.addCollaborator(repoName, login);
+                    logger.info("Added user {} as collaborator to repository {}", login, repoName);
+                } catch (Exception e) {
+                    logger.error("Failed to add user as collaborator: {}", e.getMessage());
+                    // Continue with the rest of the process even if GitHub collaboration fails
+                }
+            });
         }
 
         logger.info("Updating FireStore...");
         try {
             String docId = joinRequest.getUserId() + "_" + projectId;
-            DocumentReference docRef = firestore.collection("ProjectJoinRequests").document(docId);
             //Update status as ACCEPTED or REJECTED
             String requestStatus = joinRequest.getStatus();
             if(requestStatus == null) throw new Exception("Request is null");
 
-            docRef.set(Map.of("status", requestStatus), SetOptions.merge()).get();
+            // Waits for the write: a failure must roll back the membership change
+            joinRequestDocumentRepository.updateStatus(docId, requestStatus).join();
             System.out.println("Firestore update successful!");
+
+            Long requesterId = joinRequest.getUserId();
+            afterCommit(() -> {
+                pushEventHub.publish(PushEvent.toUser("join-request.decided", requesterId,
+                        Map.of("projectId", projectId, "status", requestStatus)));
+                if (requestStatus.equals("ACCEPTED"))
+                    pushEventHub.publish(PushEvent.toProject("project.member-joined", projectId,
+                            Map.of("projectId", projectId, "userId", requesterId)));
+            });
         } catch (Exception e) {
             throw new GeneralException("Failed to update Firestore: " + e.getMessage());
         }
@@ -144,8 +173,7 @@ public class NotificationServiceImpl implements  NotificationService{
     }
 
     @Override
-    @Transactional
-    public String deleteRequest(Long userId, Long projectId, User user) {
+    public CompletableFuture<String> deleteRequest(Long userId, Long projectId, User user) {
 
             if(projectId == null) throw new GeneralException("Project ID was null");
 
@@ -153,51 +181,43 @@ public class NotificationServiceImpl implements  NotificationService{
                 throw new ResourceNotFound("Project not found with projectId: "+ projectId);
 
             if (!userId.equals(user.getId()))
-                return "You are not authorized to delete this request";
+                return CompletableFuture.completedFuture("You are not authorized to delete this request");
 
             logger.info("Deleting Firestore document...");
-            
-            try {
-                String docId = userId + "_" + projectId;
-                DocumentReference docRef = firestore.collection("ProjectJoinRequests").document(docId);
 
-                // Delete document from Firestore
-                docRef.delete().get();
-                logger.info("Firestore document deleted successfully!");
-
-            } catch (Exception e) {
-                throw new GeneralException("Failed to delete Firestore document: " + e.getMessage());
-            }
-
-        return "Request successfully deleted";
+            // Delete document from Firestore
+            String docId = userId + "_" + projectId;
+            return joinRequestDocumentRepository.delete(docId)
+                    .thenApply(deleted -> {
+                        logger.info("Firestore document deleted successfully!");
+                        return "Request successfully deleted";
+                    });
     }
 
     @Override
-    @Transactional
-    public String deleteOwnRequest(Long projectId, User user) {
+    public CompletableFuture<String> deleteOwnRequest(Long projectId, User user) {
         if (projectId == null) throw new GeneralException("Project ID is null");
 
-        try {
-            // Check if there's a pending request from this user
-            Query query = firestore.collection("ProjectJoinRequests")
-                    .whereEqualTo("projectId", projectId)
-                    .whereEqualTo("userId", user.getId())
-                    .whereEqualTo("status", "PENDING");
-
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-            if (querySnapshot.get().isEmpty()) {
-                return "No pending join request found for this project";
-            }
-
-            // Delete the request
-            String docId = user.getId() + "_" + projectId;
-            DocumentReference docRef = firestore.collection("ProjectJoinRequests").document(docId);
-            docRef.delete().get();
-            logger.info("User {} deleted their own pending join request for project {}", user.getLogin(), projectId);
-
-            return "Join request deleted successfully";
-        } catch (Exception e) {
-            throw new GeneralException("Failed to delete join request: " + e.getMessage());
-        }
+        Long creatorId = projectRepository.findHeaderByProjectId(projectId)
+                .orElseThrow(() -> new ResourceNotFound("Project not found with projectId: " + projectId))
+                .getCreatorId();
+
+        // Check if there's a pending request from this user
+        return joinRequestDocumentRepository.hasPending(projectId, user.getId())
+                .thenCompose(pending -> {
+                    if (!pending)
+                        return CompletableFuture.completedFuture("No pending join request found for this project");
+
+                    // Delete the request
+                    String docId = user.getId() + "_" + projectId;
+                    return joinRequestDocumentRepository.delete(docId)
+                            .thenApply(deleted -> {
+                                logger.info("User {} deleted their own pending join request for project {}",
+                                        user.getLogin(), projectId);
+                                pushEventHub.publish(PushEvent.toUser("join-request.withdrawn", creatorId,
+                                        Map.of("projectId", projectId, "userId", user.getId())));
+                                return "Join request deleted successfully";
+                            });
+                });
     }
-}
\ No newline at end of file
+}
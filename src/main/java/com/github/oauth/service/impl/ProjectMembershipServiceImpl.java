@@ -0,0 +1,57 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.repository.ProjectJoinTableRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.service.ProjectMembershipService;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Service
+public class ProjectMembershipServiceImpl implements ProjectMembershipService {
+
+    private final ProjectRepository projectRepository;
+
+    private final ProjectJoinTableRepository projectJoinTableRepository;
+
+    private final CacheManager cacheManager;
+
+    public ProjectMembershipServiceImpl(ProjectRepository projectRepository,
+            ProjectJoinTableRepository projectJoinTableRepository, CacheManager cacheManager) {
+        this.projectRepository = projectRepository;
+        this.projectJoinTableRepository = projectJoinTableRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CACHE_NAME, key = "#projectId + ':' + #userId")
+    public boolean isMember(Long projectId, Long userId) {
+        return projectRepository.countMembership(projectId, userId) > 0;
+    }
+
+    // Cost grows with the users added, not with the members the project already has
+    @Override
+    @Transactional
+    public void addMembers(Long projectId, long expectedVersion, Collection<Long> userIds) {
+        if (userIds.isEmpty())
+            return;
+        projectJoinTableRepository.bumpVersion(projectId, expectedVersion);
+        projectJoinTableRepository.insertMembers(projectId, userIds);
+
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null)
+            userIds.forEach(userId -> cache.evict(projectId + ":" + userId));
+    }
+
+    // Keys are not indexed by project, and deletes are rare enough to clear the cache
+    @Override
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    public void evictProject(Long projectId) {
+    }
+}
@@ -1,26 +1,54 @@
 package com.github.oauth.service.impl;
 
 
+import com.github.oauth.exception.GeneralException;
 import com.github.oauth.exception.ResourceNotFound;
 import com.github.oauth.model.*;
 
+import com.github.oauth.payload.CursorPage;
 import com.github.oauth.payload.ProjectDTO;
+import com.github.oauth.payload.ProjectRecommendationDTO;
+import com.github.oauth.payload.TechStackPatchDTO;
+import com.github.oauth.repository.ProjectJoinTableRepository;
 import com.github.oauth.repository.ProjectRepository;
-import com.github.oauth.repository.TechRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
+import com.github.oauth.repository.ProjectRepository.ProjectMember;
+import com.github.oauth.service.ClusterIndexSync;
 import com.github.oauth.service.GitHubService;
-
-import jakarta.transaction.Transactional;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.ProjectRecommendationService.Recommendation;
+import com.github.oauth.service.ProjectSearchIndex;
+import com.github.oauth.service.ProjectSearchIndex.Hit;
+import com.github.oauth.service.ProjectSearchIndex.Hits;
+import com.github.oauth.service.ProjectTechIndex;
+import com.github.oauth.service.ProjectTechIndex.Match;
+import com.github.oauth.service.TechDictionary;
+import static com.github.oauth.service.TransactionHooks.afterCommit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.kohsuke.github.GHRepository;
 import org.modelmapper.ModelMapper;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.github.oauth.service.ProjectService;
@@ -33,33 +61,82 @@ public class ProjectServiceImpl implements ProjectService {
 
     private ModelMapper modelMapper;
 
-    private TechRepository techRepository;
+    private TechDictionary techDictionary;
 
     // private Firestore firestore;
 
     private GitHubService githubService;
 
+    private ProjectTechIndex projectTechIndex;
+
+    private ProjectRecommendationService projectRecommendationService;
+
+    private ProjectSearchIndex projectSearchIndex;
+
+    private ProjectMembershipService projectMembershipService;
+
+    private ObjectMapper objectMapper;
+
+    private ProjectJoinTableRepository projectJoinTableRepository;
+
+    private ClusterIndexSync clusterIndexSync;
+
     private static final Logger logger = LoggerFactory.getLogger(ProjectServiceImpl.class);
 
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Deep offset paging gets expensive in Lucene; nobody reads past this many results
+    static final int MAX_TEXT_SEARCH_OFFSET = 1000;
+    static final int DEFAULT_MEMBER_PAGE_SIZE = 50;
+    static final int MAX_MEMBER_PAGE_SIZE = 200;
+
+    private static final TypeReference<Set<String>> NAME_SET = new TypeReference<>() {
+    };
+
     public ProjectServiceImpl(ProjectRepository projectRepository, ModelMapper modelMapper,
-            TechRepository techRepository, GitHubService githubService) {
+            TechDictionary techDictionary, GitHubService githubService, ProjectTechIndex projectTechIndex,
+            ProjectRecommendationService projectRecommendationService, ProjectSearchIndex projectSearchIndex,
+            ProjectMembershipService projectMembershipService, ObjectMapper objectMapper,
+            ProjectJoinTableRepository projectJoinTableRepository, ClusterIndexSync clusterIndexSync) {
         this.projectRepository = projectRepository;
         this.modelMapper = modelMapper;
-        this.techRepository = techRepository;
+        this.techDictionary = techDictionary;
         // this.firestore = firestore;
         this.githubService = githubService;
+        this.projectTechIndex = projectTechIndex;
+        this.projectRecommendationService = projectRecommendationService;
+        this.projectSearchIndex = projectSearchIndex;
+        this.projectMembershipService = projectMembershipService;
+        this.objectMapper = objectMapper;
+        this.projectJoinTableRepository = projectJoinTableRepository;
+        this.clusterIndexSync = clusterIndexSync;
     }
 
+    /**
+     * Not transactional: the GitHub repository is created before any database work, so the slow
+     * call never holds a pooled connection. The project row is then written by the repository's
+     * own transaction, and the repository is deleted again if that write fails.
+     */
     @Override
-    @Transactional
     public ProjectDTO createNewProject(ProjectDTO projectDTO, User user) {
+        Set<Tech> techStack = new HashSet<>();
+        GHRepository repository;
         try {
+            // Resolved first so an unknown tech cannot leave an orphaned repository behind
+            if (projectDTO.getTechStack() != null)
+                techStack.addAll(techDictionary.resolve(projectDTO.getTechStack()));
+
             // Create GitHub repository
             String repoName = projectDTO.getProjectName().toLowerCase().replaceAll("\\s+", "-");
-            String repoUrl = githubService.createRepository(repoName, projectDTO.getDescription(), true)
-                    .getHtmlUrl().toString();
-            logger.info("Created GitHub repository: {}", repoUrl);
+            repository = githubService.createRepository(repoName, projectDTO.getDescription(), true);
+        } catch (Exception e) {
+            logger.error("Error creating project and GitHub repository", e);
+            throw new RuntimeException("Failed to create project and GitHub repository", e);
+        }
+        String repoUrl = repository.getHtmlUrl().toString();
+        logger.info("Created GitHub repository: {}", repoUrl);
 
+        try {
             // Create project entity
             Project project = new Project();
             project.setProjectName(projectDTO.getProjectName());
@@ -71,20 +148,17 @@ public class ProjectServiceImpl implements ProjectService {
             Set<User> members = new HashSet<>();
             members.add(user);
             project.setMembers(members);
-
-            Set<Tech> techStack = new HashSet<>();
-            if (projectDTO.getTechStack() != null) {
-                projectDTO.getTechStack().forEach(tech -> {
-                    Tech foundTech = techRepository.findByTechName(tech);
-                    if (foundTech == null)
-                        throw new ResourceNotFound("Tech not found: " + tech);
-                    else
-                        techStack.add(foundTech);
-                });
-            }
             project.setTechStack(techStack);
 
+            // Commits before returning, so the after-commit hooks below run straight away
             Project savedProject = projectRepository.save(project);
+            reindexAfterCommit(savedProject);
+            // The creator is a member and should not be recommended their own project
+            Long savedProjectId = savedProject.getProjectId();
+            afterCommit(() -> {
+                projectRecommendationService.onUserJoinedProject(user.getId(), savedProjectId);
+                clusterIndexSync.userChanged(user.getId());
+            });
 
             // Update user's projects
             user.getCreatedProjects().add(savedProject);
@@ -96,34 +170,46 @@ public class ProjectServiceImpl implements ProjectService {
 
             return savedProjectDTO;
         } catch (Exception e) {
-            logger.error("Error creating project and GitHub repository", e);
+            logger.error("Error saving project for GitHub repository {}", repoUrl, e);
+            deleteOrphanedRepository(repository, user);
             throw new RuntimeException("Failed to create project and GitHub repository", e);
         }
     }
 
+    private void deleteOrphanedRepository(GHRepository repository, User user) {
+        try {
+            githubService.deleteRepository(repository.getName(), user.getAccessToken());
+            logger.info("Deleted GitHub repository {} after the project could not be saved", repository.getName());
+        } catch (Exception e) {
+            logger.error("GitHub repository {} has no project and must be deleted by hand",
+                    repository.getHtmlUrl(), e);
+        }
+    }
+
     @Override
+    @Transactional
     public ProjectDTO updateProject(ProjectDTO projectDTO, User user) {
         Project project = projectRepository.findById(projectDTO.getProjectId())
                 .orElseThrow(
                         () -> new ResourceNotFound("Project not found with projectId " + projectDTO.getProjectId()));
 
         if (project.getCreator().getId().equals(user.getId())) {
+            // Reject edits made against an older read of the project
+            if (projectDTO.getVersion() != null && !projectDTO.getVersion().equals(project.getVersion()))
+                throw new ObjectOptimisticLockingFailureException(Project.class, project.getProjectId());
+
             project.setProjectName(projectDTO.getProjectName());
             project.setDescription(projectDTO.getDescription());
             Set<Tech> stack = new HashSet<>();
-            if (projectDTO.getTechStack() != null) {
-                projectDTO.getTechStack().forEach(
-                        tech -> {
-                            Tech technology = techRepository.findByTechName(tech);
-                            if (technology == null)
-                                throw new ResourceNotFound("Tech not found " + tech);
-                            else
-                                stack.add(technology);
-                        });
-            }
-            project.setTechStack(stack);
-            projectRepository.save(project);
+            if (projectDTO.getTechStack() != null)
+                stack.addAll(techDictionary.resolve(projectDTO.getTechStack()));
+            // Mutate the managed set in place so Hibernate writes only the changed join rows
+            project.getTechStack().retainAll(stack);
+            project.getTechStack().addAll(stack);
+            projectRepository.saveAndFlush(project);
+            reindexAfterCommit(project);
             projectDTO.setCreatorId(user.getId());
+            projectDTO.setVersion(project.getVersion());
             return projectDTO;
         } else {
             throw new RuntimeException("User with userId " + user.getId() +
@@ -131,6 +217,50 @@ public class ProjectServiceImpl implements ProjectService {
         }
     }
 
+    @Override
+    @Transactional
+    public ProjectDTO updateTechStack(Long projectId, TechStackPatchDTO patch, User user) {
+        ProjectHeader header = projectRepository.findHeaderByProjectId(projectId)
+                .orElseThrow(() -> new ResourceNotFound("Project not found with projectId " + projectId));
+        if (!header.getCreatorId().equals(user.getId()))
+            throw new GeneralException("User with userId " + user.getId() +
+                    " is not the creator of the project with projectId " + projectId);
+
+        Set<Integer> toAdd = patch.getAdd() == null ? Set.of() : techDictionary.resolveIds(patch.getAdd());
+        Set<Integer> toRemove = patch.getRemove() == null ? Set.of() : techDictionary.resolveIds(patch.getRemove());
+        if (toAdd.stream().anyMatch(toRemove::contains))
+            throw new GeneralException("A tech cannot be both added and removed");
+
+        if (!toAdd.isEmpty() || !toRemove.isEmpty()) {
+            long expectedVersion = patch.getVersion() != null ? patch.getVersion() : header.getVersion();
+            projectJoinTableRepository.bumpVersion(projectId, expectedVersion);
+            projectJoinTableRepository.deleteTechs(projectId, toRemove);
+            projectJoinTableRepository.insertTechs(projectId, toAdd);
+        }
+
+        List<Tech> techStack = projectRepository.findTechStackByProjectId(projectId);
+        Set<Integer> techIds = techStack.stream().map(Tech::getId).collect(Collectors.toSet());
+        boolean open = header.getProjectStatus() == ProjectStatus.OPEN;
+        String projectName = header.getProjectName();
+        String description = header.getDescription();
+        afterCommit(() -> {
+            projectTechIndex.index(projectId, techIds, open);
+            projectRecommendationService.onProjectChanged(projectId);
+            projectSearchIndex.index(projectId, projectName, description, techIds);
+            clusterIndexSync.projectChanged(projectId);
+        });
+
+        ProjectDTO projectDTO = new ProjectDTO();
+        projectDTO.setProjectId(projectId);
+        projectDTO.setProjectName(projectName);
+        projectDTO.setDescription(description);
+        projectDTO.setGithubRepository(header.getGithubRepository());
+        projectDTO.setCreatorId(header.getCreatorId());
+        projectDTO.setTechStack(techStack.stream().map(Tech::getTechName).collect(Collectors.toSet()));
+        projectDTO.setVersion(toAdd.isEmpty() && toRemove.isEmpty() ? header.getVersion() : header.getVersion() + 1);
+        return projectDTO;
+    }
+
     @Override
     @Transactional
     public String deleteProject(Long projectId, User user) {
@@ -141,6 +271,13 @@ public class ProjectServiceImpl implements ProjectService {
             if (project.getCreator().getId().equals(user.getId())) {
                 // Delete project from database
                 projectRepository.delete(project);
+                projectMembershipService.evictProject(projectId);
+                afterCommit(() -> {
+                    projectTechIndex.remove(projectId);
+                    projectSearchIndex.remove(projectId);
+                    projectRecommendationService.onProjectRemoved(projectId);
+                    clusterIndexSync.projectChanged(projectId);
+                });
                 user.getProjects().remove(project);
                 user.getCreatedProjects().remove(project);
                 logger.info("Project deleted from database. GitHub repository remains intact.");
@@ -155,30 +292,25 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ProjectDTO> searchProjectsByTechStack(Set<String> techNames) {
         try {
-            Set<Tech> techStack = techNames.stream()
-                    .map(name -> {
-                        Tech tech = techRepository.findByTechName(name);
-                        if (tech == null)
-                            throw new ResourceNotFound("Tech not found " + name);
-                        return tech;
-                    })
-                    .collect(Collectors.toSet());
-
-            List<Project> projects = projectRepository.findByTechStackOrderByMatchCount(techStack);
+            Set<Tech> techStack = techDictionary.resolve(techNames);
+
+            List<Project> projects;
+            if (projectTechIndex.isReady()) {
+                Set<Integer> techIds = techStack.stream().map(Tech::getId).collect(Collectors.toSet());
+                List<Long> projectIds = projectTechIndex.rankAfter(techIds, Long.MAX_VALUE, 0L, Integer.MAX_VALUE)
+                        .stream()
+                        .map(Match::projectId)
+                        .toList();
+                projects = loadInOrder(projectIds);
+            } else {
+                projects = projectRepository.findByTechStackOrderByMatchCount(techStack);
+            }
 
             return projects.stream()
-                    .map(project -> {
-                        ProjectDTO dto = modelMapper.map(project, ProjectDTO.class);
-                        Set<String> techNamesOnly = project.getTechStack().stream()
-                                .map(Tech::getTechName)
-                                .collect(Collectors.toSet());
-                        dto.setTechStack(techNamesOnly);
-                        dto.setCreatorId(project.getCreator().getId());
-                        return dto;
-                    })
+                    .map(this::toSearchResult)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             logger.error("Error searching projects by tech stack", e);
@@ -187,6 +319,142 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDTO> searchProjectsByTechStack(Set<String> techNames, String cursor, int size) {
+        int pageSize = size <= 0 ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(size, MAX_SEARCH_PAGE_SIZE);
+
+        Set<Integer> techIds = techDictionary.resolveIds(techNames);
+        if (techIds.isEmpty())
+            return new CursorPage<>(List.of(), pageSize, null);
+
+        // First page starts above any possible match count
+        long afterMatchCount = Long.MAX_VALUE;
+        long afterProjectId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            long[] position = decodeSearchCursor(cursor);
+            afterMatchCount = position[0];
+            afterProjectId = position[1];
+        }
+
+        // Fetch one extra match to know whether another page exists
+        List<Match> matches = rankMatches(techIds, afterMatchCount, afterProjectId, pageSize + 1);
+        boolean hasNext = matches.size() > pageSize;
+        if (hasNext)
+            matches = matches.subList(0, pageSize);
+
+        List<Long> projectIds = matches.stream().map(Match::projectId).toList();
+        List<ProjectDTO> content = loadInOrder(projectIds).stream()
+                .map(this::toSearchResult)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            Match last = matches.get(matches.size() - 1);
+            nextCursor = encodeSearchCursor(last.matchCount(), last.projectId());
+        }
+        return new CursorPage<>(content, pageSize, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDTO> searchProjectsByText(String query, Set<String> techNames, String cursor, int size) {
+        if (query == null || query.isBlank())
+            throw new GeneralException("Search query cannot be empty");
+        if (!projectSearchIndex.isReady())
+            throw new GeneralException("Project text search is not available yet");
+        int pageSize = size <= 0 ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(size, MAX_SEARCH_PAGE_SIZE);
+
+        Set<Integer> techIds = techNames == null ? Set.of() : techDictionary.resolveIds(techNames);
+
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new GeneralException("Invalid search cursor");
+            }
+            if (offset < 0 || offset > MAX_TEXT_SEARCH_OFFSET)
+                throw new GeneralException("Invalid search cursor");
+        }
+
+        Hits hits = projectSearchIndex.search(query, techIds, offset, pageSize);
+        List<ProjectDTO> content = loadInOrder(hits.hits().stream().map(Hit::projectId).toList()).stream()
+                .map(this::toSearchResult)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        int nextOffset = offset + pageSize;
+        if (hits.hasMore() && nextOffset <= MAX_TEXT_SEARCH_OFFSET) {
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Integer.toString(nextOffset).getBytes(StandardCharsets.UTF_8));
+        }
+        return new CursorPage<>(content, pageSize, nextCursor);
+    }
+
+    private List<Match> rankMatches(Set<Integer> techIds, long afterMatchCount, long afterProjectId, int limit) {
+        if (projectTechIndex.isReady())
+            return projectTechIndex.rankAfter(techIds, afterMatchCount, afterProjectId, limit);
+
+        return projectRepository.findMatchesAfter(techIds, afterMatchCount, afterProjectId, PageRequest.of(0, limit))
+                .stream()
+                .map(match -> new Match(match.getProjectId(), match.getMatchCount().intValue()))
+                .toList();
+    }
+
+    private List<Project> loadInOrder(List<Long> projectIds) {
+        if (projectIds.isEmpty())
+            return List.of();
+        Map<Long, Project> projectsById = projectRepository.findByProjectIdIn(projectIds).stream()
+                .collect(Collectors.toMap(Project::getProjectId, Function.identity()));
+        return projectIds.stream()
+                .map(projectsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void reindexAfterCommit(Project project) {
+        long projectId = project.getProjectId();
+        boolean open = project.getProjectStatus() == ProjectStatus.OPEN;
+        Set<Integer> techIds = project.getTechStack().stream().map(Tech::getId).collect(Collectors.toSet());
+        String projectName = project.getProjectName();
+        String description = project.getDescription();
+        afterCommit(() -> {
+            projectTechIndex.index(projectId, techIds, open);
+            projectRecommendationService.onProjectChanged(projectId);
+            projectSearchIndex.index(projectId, projectName, description, techIds);
+            clusterIndexSync.projectChanged(projectId);
+        });
+    }
+
+    private ProjectDTO toSearchResult(Project project) {
+        ProjectDTO dto = modelMapper.map(project, ProjectDTO.class);
+        Set<String> techNamesOnly = project.getTechStack().stream()
+                .map(Tech::getTechName)
+                .collect(Collectors.toSet());
+        dto.setTechStack(techNamesOnly);
+        dto.setCreatorId(project.getCreator().getId());
+        return dto;
+    }
+
+    private static String encodeSearchCursor(long matchCount, long projectId) {
+        String raw = matchCount + ":" + projectId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeSearchCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2)
+                throw new GeneralException("Invalid search cursor");
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (IllegalArgumentException e) {
+            throw new GeneralException("Invalid search cursor");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ProjectDTO getProjectById(Long projectId) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFound("Project not found with ID: " + projectId));
@@ -197,6 +465,7 @@ public class ProjectServiceImpl implements ProjectService {
         projectDTO.setDescription(project.getDescription());
         projectDTO.setGithubRepository(project.getGithubRepository());
         projectDTO.setCreatorId(project.getCreator().getId());
+        projectDTO.setVersion(project.getVersion());
 
         Set<String> techNames = project.getTechStack().stream()
                 .map(Tech::getTechName)
@@ -207,11 +476,46 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    public List<UserDTO> getProjectMembers(Long projectId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFound("Project not found with ID: " + projectId));
+    @Transactional(readOnly = true)
+    public List<ProjectRecommendationDTO> getRecommendedProjects(User user) {
+        Set<Integer> techIds = user.getTechStack().stream().map(Tech::getId).collect(Collectors.toSet());
+        List<Recommendation> recommendations = projectRecommendationService.recommend(user.getId(), techIds,
+                () -> user.getProjects().stream().map(Project::getProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Project> projectsById = loadInOrder(recommendations.stream().map(Recommendation::projectId).toList())
+                .stream()
+                .collect(Collectors.toMap(Project::getProjectId, Function.identity()));
+
+        return recommendations.stream()
+                .filter(recommendation -> projectsById.containsKey(recommendation.projectId()))
+                .map(recommendation -> new ProjectRecommendationDTO(
+                        toSearchResult(projectsById.get(recommendation.projectId())), recommendation.score()))
+                .collect(Collectors.toList());
+    }
 
-        return project.getMembers().stream()
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getProjectMembers(Long projectId, String cursor, int size) {
+        if (!projectRepository.existsById(projectId))
+            throw new ResourceNotFound("Project not found with ID: " + projectId);
+        int pageSize = size <= 0 ? DEFAULT_MEMBER_PAGE_SIZE : Math.min(size, MAX_MEMBER_PAGE_SIZE);
+
+        long afterUserId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterUserId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new GeneralException("Invalid members cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<ProjectMember> members = projectRepository.findMembersAfter(projectId, afterUserId, pageSize + 1);
+        boolean hasNext = members.size() > pageSize;
+        if (hasNext)
+            members = members.subList(0, pageSize);
+
+        List<UserDTO> content = members.stream()
                 .map(member -> {
                     UserDTO userDTO = new UserDTO();
                     userDTO.setId(member.getId());
@@ -220,14 +524,28 @@ public class ProjectServiceImpl implements ProjectService {
                     userDTO.setEmail(member.getEmail());
                     userDTO.setAvatarUrl(member.getAvatarUrl());
                     userDTO.setGithubId(member.getGithubId());
-                    userDTO.setRoles(member.getRoles().stream()
-                            .map(role -> role.getRoleName().name())
-                            .collect(Collectors.toSet()));
-                    userDTO.setTechStack(member.getTechStack().stream()
-                            .map(Tech::getTechName)
-                            .collect(Collectors.toSet()));
+                    userDTO.setRoles(parseNames(member.getRoles()));
+                    userDTO.setTechStack(parseNames(member.getTechStack()));
                     return userDTO;
                 })
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            String lastUserId = members.get(members.size() - 1).getId().toString();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(lastUserId.getBytes(StandardCharsets.UTF_8));
+        }
+        return new CursorPage<>(content, pageSize, nextCursor);
+    }
+
+    private Set<String> parseNames(String jsonArray) {
+        if (jsonArray == null)
+            return new HashSet<>();
+        try {
+            return objectMapper.readValue(jsonArray, NAME_SET);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed name list from database: " + jsonArray, e);
+        }
     }
 }
\ No newline at end of file
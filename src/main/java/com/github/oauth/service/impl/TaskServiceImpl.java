@@ -1,341 +1,329 @@
 package com.github.oauth.service.impl;
 
-import com.google.cloud.firestore.*;
-import com.google.api.core.ApiFuture;
 import com.github.oauth.exception.GeneralException;
 import com.github.oauth.exception.ResourceNotFound;
-import com.github.oauth.model.Project;
 import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
 import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.TimestampCursor;
 import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.TaskDocumentRepository;
+import com.github.oauth.repository.TaskDocumentRepository.StatusChange;
+import com.github.oauth.repository.TaskDocumentRepository.VersionedTask;
+import com.github.oauth.repository.Ulid;
 import com.github.oauth.repository.UserRepository;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.PushEvent;
+import com.github.oauth.service.PushEventHub;
 import com.github.oauth.service.TaskService;
 
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 @Service
 public class TaskServiceImpl implements TaskService {
     private static final Logger logger = LoggerFactory.getLogger(TaskServiceImpl.class);
-    private final Firestore firestore;
+    private static final int DEFAULT_TASK_PAGE_SIZE = 20;
+    private static final int MAX_TASK_PAGE_SIZE = 100;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
-
-    public TaskServiceImpl(Firestore firestore, UserRepository userRepository, ProjectRepository projectRepository) {
-        this.firestore = firestore;
+    private final ProjectMembershipService projectMembershipService;
+    private final TaskDocumentRepository taskDocumentRepository;
+    private final Executor continuationExecutor;
+    private final Duration lastCheckedInterval;
+    private final PushEventHub pushEventHub;
+
+    public TaskServiceImpl(UserRepository userRepository, ProjectRepository projectRepository,
+            ProjectMembershipService projectMembershipService, TaskDocumentRepository taskDocumentRepository,
+            @Qualifier("continuationExecutor") Executor continuationExecutor,
+            @Value("${app.polling.last-checked-interval:5m}") Duration lastCheckedInterval,
+            PushEventHub pushEventHub) {
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
+        this.projectMembershipService = projectMembershipService;
+        this.taskDocumentRepository = taskDocumentRepository;
+        this.continuationExecutor = continuationExecutor;
+        this.lastCheckedInterval = lastCheckedInterval;
+        this.pushEventHub = pushEventHub;
     }
 
     @Override
-    public Task assignTask(Task task, User creator) {
+    public CompletableFuture<Task> assignTask(Task task, User creator) {
         Long projectId = task.getProjectId();
         if (projectId == null) throw new GeneralException("Project ID is null");
 
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResourceNotFound("Project not found with projectId: " + projectId));
+        // Header projection: the creator check needs only creatorId, not the Project entity
+        Long creatorId = projectRepository.findHeaderByProjectId(projectId)
+                .orElseThrow(() -> new ResourceNotFound("Project not found with projectId: " + projectId))
+                .getCreatorId();
 
-        if (!project.getCreator().getId().equals(creator.getId()))
+        if (!creatorId.equals(creator.getId()))
             throw new GeneralException("You are not authorized to assign tasks in this project");
 
-        User assignedUser = userRepository.findById((task.getAssignedTo()))
-                .orElseThrow(() -> new ResourceNotFound("User not found with ID: " + task.getAssignedTo()));
+        if (!userRepository.existsById(task.getAssignedTo()))
+            throw new ResourceNotFound("User not found with ID: " + task.getAssignedTo());
 
-        if (!project.getMembers().contains(assignedUser))
+        if (!projectMembershipService.isMember(projectId, task.getAssignedTo()))
             throw new GeneralException("Assigned user is not a member of the project");
 
-        try {
-            task.setStatus("REQUESTED");
-            task.setId(task.getAssignedTo() + "_" + task.getDetails() + "_" + task.getProjectId());
-
-            DocumentReference docRef = firestore.collection("Tasks").document(task.getId());
-            docRef.set(task).get();
+        task.setStatus(TaskStatus.REQUESTED);
+        task.setStatusChangedAt(null);
+        task.setId(Ulid.next());
+        return taskDocumentRepository.save(task, creator.getId()).thenApply(saved -> {
+            pushEventHub.publish(new PushEvent("task.assigned", projectId, Set.of(task.getAssignedTo()), task));
             return task;
-        } catch (Exception e) {
-            throw new GeneralException("Error assigning task: " + e.getMessage());
-        }
+        });
     }
 
     @Override
-    @Transactional
-    public Task updateTaskStatus(Task task, User assignedUser) {
+    public CompletableFuture<Task> updateTaskStatus(Task task, User assignedUser) {
         if (task.getId() == null) throw new GeneralException("Task ID is null");
 
-        if (!task.getAssignedTo().equals(assignedUser.getId()))
-            throw new GeneralException("Task was not assigned to you");
-
-        try {
-            DocumentReference docRef = firestore.collection("Tasks").document(task.getId());
-            DocumentSnapshot document = docRef.get().get();
-
-            if (!document.exists()) {
-                throw new ResourceNotFound("Task not found");
-            }
-
-            String currentStatus = document.getString("status");
-            String newStatus = task.getStatus();
-
-            String pullRequestUrl = task.getPullRequestUrl();
-            if(pullRequestUrl != null) {
-                docRef.set(Map.of("pullRequestUrl", pullRequestUrl), SetOptions.merge()).get();
-            }
-
-            // Validate status transitions
-            if (currentStatus != null && currentStatus.equals("REQUESTED")) {
-                if (!newStatus.equals("PENDING") && !newStatus.equals("REJECTED")) {
-                    throw new GeneralException("Invalid status transition from REQUESTED");
-                }
-            } else if (currentStatus != null && currentStatus.equals("PENDING")) {
-                if (!newStatus.equals("REQUEST_COMPLETE") && !newStatus.equals("REJECTED")) {
-                    throw new GeneralException("Invalid status transition from PENDING");
-                }
-            } else {
-                throw new GeneralException("Invalid current status for update");
-            }
-
-            // Update status
-            docRef.set(Map.of("status", newStatus), SetOptions.merge()).get();
-            task.setStatus(newStatus);
-            return task;
-        } catch (Exception e) {
-            throw new GeneralException("Failed to update task: " + e.getMessage());
-        }
+        TaskStatus newStatus = task.getStatus();
+        if (newStatus == null || newStatus.isVerdict())
+            throw new GeneralException("Only the project creator can set status " + newStatus);
+
+        return taskDocumentRepository.transition(task.getId(), assignedUser.getId(), stored -> {
+                    // The stored assignee, not the one in the request body
+                    if (!assignedUser.getId().equals(stored.getAssignedTo()))
+                        throw new GeneralException("Task was not assigned to you");
+                    requireTransition(stored, newStatus);
+                    // Pull request URL goes in the same write as the status
+                    return task.getPullRequestUrl() == null
+                            ? StatusChange.to(newStatus)
+                            : new StatusChange(newStatus, Map.of("pullRequestUrl", task.getPullRequestUrl()));
+                })
+                .thenApply(previous -> {
+                    publishStatusChange(previous, newStatus);
+                    return task;
+                });
     }
 
     @Override
-    @Transactional
-    public Task updateTaskCompletion(Task task, User creator) {
+    public CompletableFuture<Task> updateTaskCompletion(Task task, User creator) {
         if (task.getId() == null) throw new GeneralException("Task ID is null");
 
-        try {
-            DocumentReference docRef = firestore.collection("Tasks").document(task.getId());
-            DocumentSnapshot document = docRef.get().get();
-
-            if (!document.exists()) {
-                throw new ResourceNotFound("Task not found");
-            }
-
-            // Verify creator
-            Project project = projectRepository.findById(task.getProjectId())
-                    .orElseThrow(() -> new ResourceNotFound("Project not found"));
-            
-            if (!project.getCreator().getId().equals(creator.getId())) {
-                throw new GeneralException("Only the project creator can update task completion");
-            }
-
-            String currentStatus = document.getString("status");
-            String newStatus = task.getStatus();
+        TaskStatus newStatus = task.getStatus();
+        if (newStatus == null || !newStatus.isVerdict())
+            throw new GeneralException("Invalid status transition from REQUEST_COMPLETE");
+
+        // The creator of the stored task's project, not of the project named in the request
+        // body; the lookup blocks, so the check runs on the continuation executor
+        return taskDocumentRepository.transition(task.getId(), creator.getId(), stored -> {
+                    Long creatorId = projectRepository.findHeaderByProjectId(stored.getProjectId())
+                            .orElseThrow(() -> new ResourceNotFound("Project not found"))
+                            .getCreatorId();
+                    if (!creatorId.equals(creator.getId()))
+                        throw new GeneralException("Only the project creator can update task completion");
+                    requireTransition(stored, newStatus);
+                    return StatusChange.to(newStatus);
+                }, continuationExecutor)
+                .thenApply(previous -> {
+                    publishStatusChange(previous, newStatus);
+                    return task;
+                });
+    }
 
-            // Validate status transitions
-            if (currentStatus != null && !currentStatus.equals("REQUEST_COMPLETE")) {
-                throw new GeneralException("Task must be in REQUEST_COMPLETE status");
-            }
+    private void publishStatusChange(Task previous, TaskStatus newStatus) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("taskId", previous.getId());
+        change.put("projectId", previous.getProjectId());
+        change.put("assignedTo", previous.getAssignedTo());
+        change.put("from", previous.getStatus());
+        change.put("to", newStatus);
+        pushEventHub.publish(new PushEvent("task.status", previous.getProjectId(),
+                previous.getAssignedTo() == null ? Set.of() : Set.of(previous.getAssignedTo()), change));
+    }
 
-            if (newStatus != null && !newStatus.equals("COMPLETED") && !newStatus.equals("REQUEST_REJECTED")) {
-                throw new GeneralException("Invalid status transition from REQUEST_COMPLETE");
-            }
+    private static void requireTransition(Task stored, TaskStatus newStatus) {
+        TaskStatus currentStatus = stored.getStatus();
+        if (currentStatus == null || !currentStatus.canTransitionTo(newStatus))
+            throw new GeneralException("Invalid status transition from " + currentStatus + " to " + newStatus);
+    }
 
-            // Update status
-            docRef.set(Map.of("status", newStatus), SetOptions.merge()).get();
-            task.setStatus(newStatus);
-            return task;
-        } catch (Exception e) {
-            throw new GeneralException("Failed to update task completion: " + e.getMessage());
-        }
+    @Override
+    public CompletableFuture<Task> getTask(String taskId, User user) {
+        return taskDocumentRepository.findById(taskId)
+                // Membership is checked in MySQL, so it leaves the callback thread
+                .thenApplyAsync(stored -> {
+                    Task task = stored.orElseThrow(() -> new ResourceNotFound("Task not found with ID: " + taskId));
+                    if (!projectMembershipService.isMember(task.getProjectId(), user.getId()))
+                        throw new GeneralException("You are not a member of this task's project");
+                    return task;
+                }, continuationExecutor);
     }
 
     @Override
-    @Transactional
-    public void deleteTask(String taskId, User user) {
+    public CompletableFuture<Void> deleteTask(String taskId, User user) {
         if (taskId == null) throw new GeneralException("Task ID is null");
 
-        try {
-            DocumentReference docRef = firestore.collection("Tasks").document(taskId);
-            DocumentSnapshot document = docRef.get().get();
-
-            if (!document.exists()) {
-                throw new ResourceNotFound("Task not found");
-            }
-
-            // Verify user is either creator or assigned user
-            Project project = projectRepository.findById(document.getLong("projectId"))
-                    .orElseThrow(() -> new ResourceNotFound("Project not found"));
-
-            if (!project.getCreator().getId().equals(user.getId())) {
-                Long assignedTo = document.getLong("assignedTo");
-                if (assignedTo == null || !assignedTo.equals(user.getId())) {
-                    throw new GeneralException("You are not authorized to delete this task");
-                }   
-            }
-            docRef.delete().get();
-        } catch (Exception e) {
-            throw new GeneralException("Failed to delete task: " + e.getMessage());
-        }
+        return taskDocumentRepository.findById(taskId)
+                // The project lookup needs the stored task, and blocks, so it leaves the callback thread
+                .thenApplyAsync(stored -> {
+                    Task task = stored.orElseThrow(() -> new ResourceNotFound("Task not found"));
+
+                    // Verify user is either creator or assigned user
+                    Long creatorId = projectRepository.findHeaderByProjectId(task.getProjectId())
+                            .orElseThrow(() -> new ResourceNotFound("Project not found"))
+                            .getCreatorId();
+
+                    if (!creatorId.equals(user.getId())) {
+                        Long assignedTo = task.getAssignedTo();
+                        if (assignedTo == null || !assignedTo.equals(user.getId())) {
+                            throw new GeneralException("You are not authorized to delete this task");
+                        }
+                    }
+                    return task;
+                }, continuationExecutor)
+                // The stored ID, which differs from the requested one when that was a legacy ID
+                .thenCompose(task -> taskDocumentRepository.delete(task.getId()).thenAccept(deleted ->
+                        pushEventHub.publish(new PushEvent("task.deleted", task.getProjectId(),
+                                task.getAssignedTo() == null ? Set.of() : Set.of(task.getAssignedTo()),
+                                Map.of("taskId", task.getId(), "projectId", task.getProjectId())))));
     }
 
     @Override
-    public List<Task> getTasksByStatus(String status) {
+    public List<VersionedTask> getTasksAwaitingVerdict() {
         try {
-            logger.info("Getting tasks with status: {}", status);
-            // Query Firebase for tasks with specific status
-            CollectionReference tasksCollection = firestore.collection("Tasks");
-            Query query = tasksCollection.whereEqualTo("status", status);
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-
-            List<Task> tasks = new ArrayList<>();
-            QuerySnapshot snapshot = querySnapshot.get();
-            logger.info("Found {} tasks with status {}", snapshot.size(), status);
-
-            for (DocumentSnapshot document : snapshot.getDocuments()) {
-                try {
-                    logger.debug("Processing document: {}", document.getId());
-                    Task task = document.toObject(Task.class);
-                    if (task != null) {
-                        logger.debug("Task fields - assignedTo: {}, details: {}, projectId: {}", 
-                            task.getAssignedTo(), task.getDetails(), task.getProjectId());
-                        // Set the ID using our custom format
-                        task.setId(task.getAssignedTo() + "_" + task.getDetails() + "_" + task.getProjectId());
-                        tasks.add(task);
-                    } else {
-                        logger.warn("Failed to convert document to Task object: {}", document.getId());
-                    }
-                } catch (Exception e) {
-                    logger.error("Error processing document {}: {}", document.getId(), e.getMessage(), e);
-                }
-            }
-            logger.info("Successfully retrieved {} tasks", tasks.size());
+            List<VersionedTask> tasks = taskDocumentRepository.findVersionedByStatus(TaskStatus.REQUEST_COMPLETE).join();
+            logger.info("Found {} tasks awaiting a verdict", tasks.size());
             return tasks;
         } catch (Exception e) {
-            logger.error("Error getting tasks by status: {}", e.getMessage(), e);
-            logger.error("Stack trace: ", e);
-            throw new RuntimeException("Failed to get tasks by status: " + e.getMessage(), e);
+            logger.error("Error getting tasks awaiting a verdict: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to get tasks awaiting a verdict: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Writes one polling cycle's results in bulk. Verdicts go out as guarded batches of
+     * status change plus history entry, with lastChecked folded into the same update; a task
+     * changed since it was read is re-validated on its own. Tasks without a verdict only get
+     * lastChecked, and only once it is older than the configured interval.
+     */
     @Override
-    public void updateLastChecked(String taskId) {
+    public void recordPollResults(List<VersionedTask> checked, Map<String, TaskStatus> verdicts) {
+        com.google.cloud.Timestamp now = com.google.cloud.Timestamp.now();
+        Map<VersionedTask, StatusChange> changes = new HashMap<>();
+        List<String> stale = new ArrayList<>();
+        for (VersionedTask polled : checked) {
+            Task task = polled.task();
+            TaskStatus verdict = verdicts.get(task.getId());
+            if (verdict != null && task.getStatus() != null && task.getStatus().canTransitionTo(verdict)) {
+                changes.put(polled, new StatusChange(verdict, Map.of("lastChecked", now)));
+            } else if (task.getLastChecked() == null || task.getLastChecked().getSeconds()
+                    <= now.getSeconds() - lastCheckedInterval.getSeconds()) {
+                stale.add(task.getId());
+            }
+        }
+
+        List<String> conflicted = changes.isEmpty() ? List.of()
+                : taskDocumentRepository.applyTransitions(changes, null).join();
+        changes.forEach((polled, change) -> {
+            if (!conflicted.contains(polled.task().getId()))
+                publishStatusChange(polled.task(), change.to());
+        });
+        for (String taskId : conflicted) {
+            TaskStatus verdict = verdicts.get(taskId);
+            try {
+                Task previous = taskDocumentRepository.transition(taskId, null, stored -> {
+                    requireTransition(stored, verdict);
+                    return new StatusChange(verdict, Map.of("lastChecked", now));
+                }).join();
+                publishStatusChange(previous, verdict);
+            } catch (Exception e) {
+                logger.warn("Task {} changed while polling, verdict {} not applied: {}", taskId, verdict, e.getMessage());
+            }
+        }
+
         try {
-            DocumentReference taskRef = firestore.collection("Tasks").document(taskId);
-            taskRef.update("lastChecked", com.google.cloud.Timestamp.now());
+            taskDocumentRepository.updateAll(stale, "lastChecked", now).join();
         } catch (Exception e) {
-            logger.error("Error updating last checked timestamp for task {}: {}", taskId, e.getMessage());
-            throw new RuntimeException("Failed to update last checked timestamp", e);
+            logger.error("Error updating last checked timestamps: {}", e.getMessage());
         }
+        logger.info("Recorded poll results: {} verdicts ({} re-validated), {} lastChecked updates, {} skipped",
+                changes.size(), conflicted.size(), stale.size(), checked.size() - changes.size() - stale.size());
     }
 
     @Override
-    public Task getTaskById(String taskId) {
-        try {
-            DocumentReference taskRef = firestore.collection("Tasks").document(taskId);
-            DocumentSnapshot document = taskRef.get().get();
-            
-            if (document.exists()) {
-                Task task = document.toObject(Task.class);
-                if (task != null) {
-                    task.setId(document.getId());
-                    return task;
-                }
-            }
-            throw new ResourceNotFound("Task not found with ID: " + taskId);
-        } catch (Exception e) {
-            logger.error("Error getting task by ID: {}", e.getMessage());
-            throw new RuntimeException("Failed to get task by ID", e);
-        }
+    public CompletableFuture<CursorPage<Task>> getProjectTasks(Long projectId, String status, String cursor, int size,
+            User user) {
+        if (!projectRepository.existsById(projectId))
+            throw new ResourceNotFound("Project not found with ID: " + projectId);
+        if (!projectMembershipService.isMember(projectId, user.getId()))
+            throw new GeneralException("You are not a member of this project");
+        return listTasks("projectId", projectId, status, cursor, size);
     }
 
     @Override
-    public Task updateTaskStatusById(String taskId, String status) {
-        try {
-            DocumentReference docRef = firestore.collection("Tasks").document(taskId);
-            DocumentSnapshot document = docRef.get().get();
+    public CompletableFuture<CursorPage<Task>> getAssignedTasks(User user, String status, String cursor, int size) {
+        return listTasks("assignedTo", user.getId(), status, cursor, size);
+    }
 
-            if (!document.exists()) {
-                throw new ResourceNotFound("Task not found with ID: " + taskId);
-            }
+    /**
+     * Newest tasks first, keyed on (createdAt, document ID) so pages stay stable while
+     * tasks are added. Every filter combination used here has a composite index in
+     * firestore.indexes.json; Firestore rejects the query until it is deployed.
+     */
+    private CompletableFuture<CursorPage<Task>> listTasks(String field, Object value, String status, String cursor,
+            int size) {
+        int pageSize = size <= 0 ? DEFAULT_TASK_PAGE_SIZE : Math.min(size, MAX_TASK_PAGE_SIZE);
+        TaskStatus statusFilter = status == null || status.isBlank() ? null : parseStatus(status);
+        TimestampCursor position = TimestampCursor.decode(cursor, "task");
+
+        // Fetch one extra document to know whether another page exists
+        return taskDocumentRepository.findNewestFirst(field, value, statusFilter,
+                position == null ? null : position.timestamp(),
+                position == null ? null : position.id(),
+                pageSize + 1)
+                .thenApply(tasks -> {
+                    boolean hasNext = tasks.size() > pageSize;
+                    List<Task> content = hasNext ? tasks.subList(0, pageSize) : tasks;
+                    String nextCursor = null;
+                    if (hasNext) {
+                        Task last = content.get(content.size() - 1);
+                        nextCursor = new TimestampCursor(last.getCreatedAt(), last.getId()).encode();
+                    }
+                    return new CursorPage<>(content, pageSize, nextCursor);
+                });
+    }
 
-            // Update status
-            docRef.set(Map.of("status", status), SetOptions.merge()).get();
-            
-            // Return updated task
-            Task task = document.toObject(Task.class);
-            if (task != null) {
-                task.setId(document.getId());
-                task.setStatus(status);
-            }
-            return task;
-        } catch (Exception e) {
-            logger.error("Error updating task status: {}", e.getMessage());
-            throw new RuntimeException("Failed to update task status", e);
+    private static TaskStatus parseStatus(String status) {
+        try {
+            return TaskStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new GeneralException("Unknown task status: " + status);
         }
     }
 
     @Override
-    public Task findById(String id) {
+    public Task getTaskById(String taskId) {
         try {
-            // Parse the id to get assignedTo and projectId
-            String[] parts = id.split("_");
-            if (parts.length != 3) {
-                throw new IllegalArgumentException("Invalid task ID format");
-            }
-            String assignedToStr = parts[0];
-            String projectId = parts[2];
-            
-            // Query the task
-            Query query = firestore.collection("tasks")
-                .whereEqualTo("assignedTo", Long.parseLong(assignedToStr))
-                .whereEqualTo("projectId", projectId)
-                .whereEqualTo("details", parts[1]);
-            
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-            List<QueryDocumentSnapshot> documents = querySnapshot.get().getDocuments();
-            
-            if (documents.isEmpty()) {
-                throw new RuntimeException("Task not found");
-            }
-            
-            return documents.get(0).toObject(Task.class);
+            return taskDocumentRepository.findById(taskId).join()
+                    .orElseThrow(() -> new ResourceNotFound("Task not found with ID: " + taskId));
         } catch (Exception e) {
-            logger.error("Error finding task by id: {}", e.getMessage());
-            throw new RuntimeException("Failed to find task", e);
+            logger.error("Error getting task by ID: {}", e.getMessage());
+            throw new RuntimeException("Failed to get task by ID", e);
         }
     }
 
     @Override
-    public String getTaskCreatorAccessToken(String taskId) {
-        try {
-            DocumentReference docRef = firestore.collection("Tasks").document(taskId);
-            DocumentSnapshot document = docRef.get().get();
-
-            if (!document.exists()) {
-                throw new ResourceNotFound("Task not found");
-            }
-
-            // Get the project ID from the task
-            Long projectId = document.getLong("projectId");
-            if (projectId == null) {
-                throw new GeneralException("Project ID not found in task");
-            }
-
-            // Get the project to find the creator
-            Project project = projectRepository.findById(projectId)
-                    .orElseThrow(() -> new ResourceNotFound("Project not found"));
-
-            // Get the creator's access token
-            User creator = project.getCreator();
-            if (creator == null || creator.getAccessToken() == null) {
-                throw new GeneralException("Creator's access token not found");
-            }
-
-            return creator.getAccessToken();
-        } catch (Exception e) {
-            logger.error("Error getting task creator's access token: {}", e.getMessage());
-            throw new RuntimeException("Failed to get task creator's access token", e);
-        }
+    public String getProjectCreatorAccessToken(Long projectId) {
+        if (projectId == null)
+            throw new GeneralException("Project ID not found in task");
+        return projectRepository.findCreatorAccessTokenByProjectId(projectId)
+                .orElseThrow(() -> new GeneralException("Creator's access token not found"));
     }
-}
\ No newline at end of file
+}
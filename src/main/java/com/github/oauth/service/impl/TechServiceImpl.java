@@ -2,40 +2,54 @@ package com.github.oauth.service.impl;
 
 
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.github.oauth.model.Tech;
 import com.github.oauth.repository.TechRepository;
+import com.github.oauth.service.TechDictionary;
 import com.github.oauth.service.TechService;
 
+import static com.github.oauth.service.TransactionHooks.afterCommit;
+
 @Service
 public class TechServiceImpl implements  TechService{
 
     private TechRepository techRepository;
 
+    private TechDictionary techDictionary;
+
 
-    public TechServiceImpl(TechRepository techRepository){
+    public TechServiceImpl(TechRepository techRepository, TechDictionary techDictionary){
         this.techRepository = techRepository;
+        this.techDictionary = techDictionary;
     }
 
     @Override
+    @Transactional
     public Set<String> addTech(Set<String> technologies) {
-                    Set<Tech> techSet = technologies.stream().map(
-                            technology -> {
-                                Tech tech = techRepository.findByTechName(technology);
-                                if(tech == null){
-                                    Tech newTech = new Tech(technology);
-                                    techRepository.save(newTech);
-                                    tech = techRepository.findByTechName(technology);
-                                }
-                                return tech;
-                            }
-                    ).collect(Collectors.toSet());
-
-                    return techSet.stream().map(Tech::getTechName).collect(Collectors.toSet());
+                    // One bulk lookup for the whole request instead of a query per name
+                    List<Tech> existing = techRepository.findByTechNameIn(technologies);
+                    Set<String> existingNames = existing.stream().map(Tech::getTechName).collect(Collectors.toSet());
+
+                    List<Tech> newTechs = technologies.stream()
+                            .filter(technology -> !existingNames.contains(technology))
+                            .map(Tech::new)
+                            .collect(Collectors.toList());
+                    // saveAll assigns IDs on the returned entities, so nothing needs re-querying
+                    List<Tech> saved = techRepository.saveAll(newTechs);
+
+                    List<Tech> techs = new ArrayList<>(existing);
+                    techs.addAll(saved);
+                    afterCommit(() -> techDictionary.register(techs));
+
+                    return techs.stream().map(Tech::getTechName).collect(Collectors.toCollection(HashSet::new));
 
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.github.oauth.service.impl;
 
+import com.github.oauth.config.EntityCacheInvalidator;
 import com.github.oauth.model.AppRole;
 import com.github.oauth.model.Role;
 import com.github.oauth.model.User;
@@ -7,6 +8,9 @@ import com.github.oauth.model.User;
 import com.github.oauth.exception.ResourceNotFound;
 import com.github.oauth.repository.RoleRepository;
 import com.github.oauth.repository.UserRepository;
+import com.github.oauth.service.ClusterIndexSync;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.TechDictionary;
 import com.github.oauth.service.UserService;
 
 import org.springframework.security.core.Authentication;
@@ -14,7 +18,6 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.modelmapper.ModelMapper;
-import com.github.oauth.repository.TechRepository;
 import com.github.oauth.model.Tech;
 import com.github.oauth.model.Project;
 import com.github.oauth.payload.ProjectDTO;
@@ -23,38 +26,44 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.github.oauth.service.TransactionHooks.afterCommit;
+
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final TechRepository techRepository;
+    private final TechDictionary techDictionary;
     
     private final ModelMapper modelMapper;
 
+    private final ProjectRecommendationService projectRecommendationService;
+
+    private final ClusterIndexSync clusterIndexSync;
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
     public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
-            TechRepository techRepository, ModelMapper modelMapper) {
+            TechDictionary techDictionary, ModelMapper modelMapper,
+            ProjectRecommendationService projectRecommendationService, ClusterIndexSync clusterIndexSync,
+            EntityCacheInvalidator entityCacheInvalidator) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.techRepository = techRepository;
+        this.techDictionary = techDictionary;
        
         this.modelMapper = modelMapper;
+        this.projectRecommendationService = projectRecommendationService;
+        this.clusterIndexSync = clusterIndexSync;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
+    // One-column update like the login path: a merge would dirty-check the user's collections,
+    // and a bulk JPQL update would evict the whole user cache region instead of this entry
     @Transactional
     public void updateEmail(Authentication authentication, String newEmail) {
-        if (authentication == null || !(authentication.getPrincipal() instanceof OAuth2User)) {
-            throw new IllegalArgumentException("User not authenticated");
-        }
-
-        OAuth2User oAuth2User = (OAuth2User) authentication.getPrincipal();
-        Object githubIdObj = oAuth2User.getAttribute("id");
-        if (githubIdObj == null) {
-            throw new IllegalArgumentException("GitHub ID not found in authentication");
-        }
-        String githubId = githubIdObj.toString();
-
-        userRepository.updateEmailByGithubId(githubId, newEmail);
+        long userId = getCurrentUser(authentication).getId();
+        userRepository.updateEmail(userId, newEmail);
+        afterCommit(() -> entityCacheInvalidator.evict(User.class, userId));
     }
 
     public User getCurrentUser(Authentication authentication) {
@@ -94,16 +103,10 @@ public class UserServiceImpl implements UserService {
     @Override
     public Set<Tech> addTech(Set<String> techStack, User user) {
         Set<Tech> existingTechStack = user.getTechStack();
-        techStack.forEach(
-                tech -> {
-                    Tech foundTech = techRepository.findByTechName(tech);
-                    if (foundTech == null)
-                        throw new ResourceNotFound("Tech not found" + tech);
-                    else
-                        existingTechStack.add(foundTech);
-                });
+        existingTechStack.addAll(techDictionary.resolve(techStack));
         user.setTechStack(existingTechStack);
         userRepository.save(user);
+        refreshRecommendations(user.getId(), existingTechStack);
         return existingTechStack;
     }
 
@@ -112,16 +115,22 @@ public class UserServiceImpl implements UserService {
     public Set<Tech> removeTech(String technology, User user) {
 
         Set<Tech> existingTechStack = user.getTechStack();
-        Tech techToRemove = techRepository.findByTechName(technology);
-        if (techToRemove == null)
-            throw new ResourceNotFound("Tech not found " + technology);
-        else
-            existingTechStack.remove(techToRemove);
+        existingTechStack.removeAll(techDictionary.resolve(Set.of(technology)));
         user.setTechStack(existingTechStack);
+        refreshRecommendations(user.getId(), existingTechStack);
         return existingTechStack;
     }
 
+    private void refreshRecommendations(Long userId, Set<Tech> techStack) {
+        Set<Integer> techIds = techStack.stream().map(Tech::getId).collect(Collectors.toSet());
+        afterCommit(() -> {
+            projectRecommendationService.onUserTechChanged(userId, techIds);
+            clusterIndexSync.userChanged(userId);
+        });
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getMyCreatedProjects(User user) {
         Set<Project> createdProjects = user.getCreatedProjects();
         return createdProjects.stream()
@@ -143,6 +152,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getProjects(User user) {
         Set<Project> projects = user.getProjects();
         return projects.stream()
@@ -182,6 +192,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserDTOById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFound("User not found with id: " + userId));
@@ -189,6 +200,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getCreatedProjectsByUserId(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFound("User not found with id: " + userId));
@@ -208,6 +220,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getJoinedProjectsByUserId(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFound("User not found with id: " + userId));
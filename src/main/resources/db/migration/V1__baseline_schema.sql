@@ -0,0 +1,122 @@
+-- Baseline schema as previously created by ddl-auto=update, before the project version
+-- column and the tech search index. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it; later migrations add the rest.
+
+create table project_members (
+    project_id bigint not null,
+    user_id bigint not null,
+    primary key (project_id, user_id)
+) engine=InnoDB;
+
+create table project_tech_stack (
+    project_id bigint not null,
+    tech_id integer not null,
+    primary key (project_id, tech_id)
+) engine=InnoDB;
+
+create table projects (
+    project_id bigint not null auto_increment,
+    created_at datetime(6),
+    description varchar(255),
+    github_repository varchar(255) not null,
+    project_name varchar(255) not null,
+    project_status tinyint not null,
+    creator_id bigint not null,
+    primary key (project_id)
+) engine=InnoDB;
+
+create table roles (
+    id integer not null auto_increment,
+    role_name enum ('ADMIN','USER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table tech_stack (
+    tech_id integer not null,
+    tech_name varchar(255),
+    primary key (tech_id)
+) engine=InnoDB;
+
+create table tech_stack_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into tech_stack_seq values ( 1 );
+
+create table user_role (
+    user_id bigint not null,
+    role_id integer not null,
+    primary key (user_id, role_id)
+) engine=InnoDB;
+
+create table user_tech_stack (
+    user_id bigint not null,
+    tech_id integer not null,
+    primary key (user_id, tech_id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    access_token varchar(1000),
+    avatar_url varchar(255),
+    created_at datetime(6),
+    email varchar(255),
+    github_id varchar(255) not null,
+    last_login_at datetime(6),
+    login varchar(255) not null,
+    name varchar(255),
+    refresh_token varchar(255),
+    token_expiry_date datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table roles
+   add constraint UK716hgxp60ym1lifrdgp67xt5k unique (role_name);
+
+alter table users
+   add constraint UKg9s8emobrgjmob2ty2va0l354 unique (github_id);
+
+alter table project_members
+   add constraint FKgul2el0qjk5lsvig3wgajwm77
+   foreign key (user_id)
+   references users (id);
+
+alter table project_members
+   add constraint FKdki1sp2homqsdcvqm9yrix31g
+   foreign key (project_id)
+   references projects (project_id);
+
+alter table project_tech_stack
+   add constraint FKlw2eyoy4tr49yc085y43taviv
+   foreign key (tech_id)
+   references tech_stack (tech_id);
+
+alter table project_tech_stack
+   add constraint FK7w262lv0btlw1x6rm97f7o69o
+   foreign key (project_id)
+   references projects (project_id);
+
+alter table projects
+   add constraint FK14mww7skdu5cpg6nq2kwcnx0e
+   foreign key (creator_id)
+   references users (id);
+
+alter table user_role
+   add constraint FKt7e7djp752sqn6w22i6ocqy6q
+   foreign key (role_id)
+   references roles (id);
+
+alter table user_role
+   add constraint FKj345gk1bovqvfame88rcx7yyx
+   foreign key (user_id)
+   references users (id);
+
+alter table user_tech_stack
+   add constraint FK9hqr7yd31142p0121h5xv2oos
+   foreign key (tech_id)
+   references tech_stack (tech_id);
+
+alter table user_tech_stack
+   add constraint FKjflfgi8e5c8q8saru0h9sj2sc
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,50 @@
+-- Indexes for the hot lookups. users.github_id (findByGithubId) is already covered
+-- by its unique constraint, and project_members' (project_id, user_id) primary key
+-- covers membership checks and member paging.
+--
+-- Databases adopted at the V1 baseline may already have these indexes from the old
+-- ddl-auto=update runs, which created them from the entity @Index annotations under
+-- the same names. MySQL has no CREATE INDEX IF NOT EXISTS, so each index is created
+-- only when information_schema does not list it yet.
+
+-- UserRepository.findByLogin
+set @ddl = (select if(count(*) = 0,
+        'create index idx_users_login on users (login)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'users' and index_name = 'idx_users_login');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- TechRepository.findByTechName / findByTechNameIn; InnoDB appends tech_id, so the
+-- index covers the whole row
+set @ddl = (select if(count(*) = 0,
+        'create index idx_tech_stack_tech_name on tech_stack (tech_name)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'tech_stack' and index_name = 'idx_tech_stack_tech_name');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- ProjectRepository.findByProjectName
+set @ddl = (select if(count(*) = 0,
+        'create index idx_projects_project_name on projects (project_name)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'projects' and index_name = 'idx_projects_project_name');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- A user's joined projects, the reverse direction of the primary key
+set @ddl = (select if(count(*) = 0,
+        'create index idx_project_members_user_project on project_members (user_id, project_id)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'project_members'
+      and index_name = 'idx_project_members_user_project');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
@@ -0,0 +1,10 @@
+-- Optimistic locking for project updates (Project.version). Existing rows start at 0.
+-- Skipped when an old ddl-auto=update run already added the column from the entity.
+set @ddl = (select if(count(*) = 0,
+        'alter table projects add column version BIGINT DEFAULT 0 not null',
+        'do 0')
+    from information_schema.columns
+    where table_schema = database() and table_name = 'projects' and column_name = 'version');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
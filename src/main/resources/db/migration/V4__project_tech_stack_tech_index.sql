@@ -0,0 +1,12 @@
+-- Keyset search of projects by tech: project_tech_stack's primary key leads with
+-- project_id, so lookups by tech_id need the reverse order. Skipped when an old
+-- ddl-auto=update run already created it from the entity @Index (see V2).
+set @ddl = (select if(count(*) = 0,
+        'create index idx_project_tech_stack_tech_project on project_tech_stack (tech_id, project_id)',
+        'do 0')
+    from information_schema.statistics
+    where table_schema = database() and table_name = 'project_tech_stack'
+      and index_name = 'idx_project_tech_stack_tech_project');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
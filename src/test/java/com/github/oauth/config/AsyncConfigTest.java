@@ -0,0 +1,32 @@
+package com.github.oauth.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AsyncConfigTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+			.withUserConfiguration(AsyncConfig.class);
+
+	@Test
+	void theApplicationTaskExecutorSurvivesTheNamedPools() {
+		contextRunner.withPropertyValues("spring.task.execution.pool.core-size=3",
+				"spring.task.execution.thread-name-prefix=app-").run(context -> {
+			ThreadPoolTaskExecutor executor = context.getBean(
+					TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, ThreadPoolTaskExecutor.class);
+			assertEquals(3, executor.getCorePoolSize());
+			assertEquals("app-", executor.getThreadNamePrefix());
+			// @Async resolves its default executor by this name once several executors exist
+			assertSame(executor, context.getBean("taskExecutor"));
+			assertEquals("continuation-",
+					context.getBean("continuationExecutor", ThreadPoolTaskExecutor.class).getThreadNamePrefix());
+		});
+	}
+}
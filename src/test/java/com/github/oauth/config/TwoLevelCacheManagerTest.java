@@ -0,0 +1,66 @@
+package com.github.oauth.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Two cache managers over forked views of one in-memory tier behave like two nodes sharing Redis
+class TwoLevelCacheManagerTest {
+
+	private InMemorySharedCacheTier nodeA;
+	private InMemorySharedCacheTier nodeB;
+	private Cache cacheA;
+	private Cache cacheB;
+
+	@BeforeEach
+	void setUp() {
+		nodeA = new InMemorySharedCacheTier(1000, Duration.ofMinutes(10));
+		nodeB = nodeA.forkNode();
+		cacheA = new TwoLevelCacheManager(nodeA, 1000, Duration.ofMinutes(1)).getCache("users");
+		cacheB = new TwoLevelCacheManager(nodeB, 1000, Duration.ofMinutes(1)).getCache("users");
+	}
+
+	@Test
+	void evictOnOneNodeDropsTheOtherNodesLocalCopy() {
+		cacheA.put("42", "old");
+		assertEquals("old", cacheB.get("42").get());
+
+		// Without the invalidation node B would keep serving "old" from its local cache
+		cacheA.evict("42");
+		cacheA.put("42", "new");
+
+		assertEquals("new", cacheB.get("42").get());
+	}
+
+	@Test
+	void clearOnOneNodeClearsTheOther() {
+		cacheA.put("1", "a");
+		cacheA.put("2", "b");
+		assertEquals("a", cacheB.get("1").get());
+
+		cacheB.clear();
+
+		assertNull(cacheA.get("1"));
+		assertNull(cacheA.get("2"));
+	}
+
+	@Test
+	void broadcastReachesOtherNodesButNotTheSender() {
+		List<String> receivedByA = new ArrayList<>();
+		List<String> receivedByB = new ArrayList<>();
+		nodeA.onBroadcast("push:event", receivedByA::add);
+		nodeB.onBroadcast("push:event", receivedByB::add);
+
+		nodeA.broadcast("push:event", "hello");
+
+		assertEquals(List.of(), receivedByA);
+		assertEquals(List.of("hello"), receivedByB);
+	}
+}
@@ -0,0 +1,111 @@
+package com.github.oauth.config;
+
+import com.github.oauth.config.WorkloadRoutingDataSource.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkloadRoutingDataSourceTest {
+
+	private ReplicaLagMonitor replicaLagMonitor;
+	private ReadYourWritesTracker readYourWritesTracker;
+	private WorkloadRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		replicaLagMonitor = mock(ReplicaLagMonitor.class);
+		when(replicaLagMonitor.isReplicaUsable()).thenReturn(true);
+		readYourWritesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+		routing = new WorkloadRoutingDataSource(replicaLagMonitor, readYourWritesTracker);
+		SecurityContextHolder.getContext()
+				.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void readWriteTransactionsGoToThePrimary() {
+		assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void aLaggingReplicaIsSkipped() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(replicaLagMonitor.isReplicaUsable()).thenReturn(false);
+
+		assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void aUserWhoJustWroteReadsFromThePrimary() {
+		readYourWritesTracker.afterCommit(transaction(false), null);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertTrue(readYourWritesTracker.currentUserWroteRecently());
+		assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+
+		// Other users are unaffected
+		SecurityContextHolder.getContext()
+				.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("bob", null, List.of()));
+		assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void readOnlyAndFailedCommitsDoNotCountAsWrites() {
+		readYourWritesTracker.afterCommit(transaction(true), null);
+		readYourWritesTracker.afterCommit(transaction(false), new RuntimeException("commit failed"));
+
+		assertFalse(readYourWritesTracker.currentUserWroteRecently());
+	}
+
+	@Test
+	void withoutAReplicaEverythingGoesToThePrimary() {
+		WorkloadRoutingDataSource primaryOnly = new WorkloadRoutingDataSource(null, null);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(Route.PRIMARY, primaryOnly.determineCurrentLookupKey());
+	}
+
+	@Test
+	void backgroundTasksUseTheirOwnPoolEvenForReads() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		AtomicReference<Object> routed = new AtomicReference<>();
+
+		WorkloadRoutingDataSource.BACKGROUND_TASKS.decorate(() -> routed.set(routing.determineCurrentLookupKey())).run();
+
+		assertEquals(Route.BACKGROUND, routed.get());
+		// The marker does not leak to whatever the thread runs next
+		assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+	}
+
+	private static TransactionExecution transaction(boolean readOnly) {
+		TransactionExecution transaction = mock(TransactionExecution.class);
+		when(transaction.isReadOnly()).thenReturn(readOnly);
+		return transaction;
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.oauth.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskStatusTest {
+
+	@Test
+	void onlyTheListedTransitionsAreAllowed() {
+		assertAllowed(TaskStatus.REQUESTED, EnumSet.of(TaskStatus.PENDING, TaskStatus.REJECTED));
+		assertAllowed(TaskStatus.PENDING, EnumSet.of(TaskStatus.REQUEST_COMPLETE, TaskStatus.REJECTED));
+		assertAllowed(TaskStatus.REQUEST_COMPLETE, EnumSet.of(TaskStatus.COMPLETED, TaskStatus.REQUEST_REJECTED));
+		assertAllowed(TaskStatus.COMPLETED, EnumSet.noneOf(TaskStatus.class));
+		assertAllowed(TaskStatus.REJECTED, EnumSet.noneOf(TaskStatus.class));
+		assertAllowed(TaskStatus.REQUEST_REJECTED, EnumSet.noneOf(TaskStatus.class));
+	}
+
+	@Test
+	void statusesWithoutAWayOutAreFinal() {
+		for (TaskStatus status : TaskStatus.values()) {
+			boolean hasNext = EnumSet.allOf(TaskStatus.class).stream().anyMatch(status::canTransitionTo);
+			assertEquals(!hasNext, status.isFinal(), status.name());
+		}
+	}
+
+	@Test
+	void verdictsAreExactlyTheMovesOutOfRequestComplete() {
+		for (TaskStatus status : TaskStatus.values())
+			assertEquals(TaskStatus.REQUEST_COMPLETE.canTransitionTo(status), status.isVerdict(), status.name());
+		assertTrue(TaskStatus.COMPLETED.isVerdict());
+		assertFalse(TaskStatus.REJECTED.isVerdict());
+	}
+
+	private static void assertAllowed(TaskStatus from, Set<TaskStatus> allowed) {
+		for (TaskStatus to : TaskStatus.values())
+			assertEquals(allowed.contains(to), from.canTransitionTo(to), from + " -> " + to);
+	}
+}
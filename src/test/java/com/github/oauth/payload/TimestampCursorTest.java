@@ -0,0 +1,61 @@
+package com.github.oauth.payload;
+
+import com.github.oauth.exception.GeneralException;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimestampCursorTest {
+
+	@Test
+	void roundTripsToTheNanosecond() {
+		TimestampCursor cursor = new TimestampCursor(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 123_456_789),
+				"01HF0000000000000000000000");
+
+		assertEquals(cursor, TimestampCursor.decode(cursor.encode(), "task"));
+	}
+
+	@Test
+	void legacyIdsWithColonsSurviveTheRoundTrip() {
+		TimestampCursor cursor = new TimestampCursor(Timestamp.ofTimeSecondsAndNanos(1L, 0),
+				"42_Fix: the login page_7");
+
+		assertEquals(cursor, TimestampCursor.decode(cursor.encode(), "task"));
+	}
+
+	@Test
+	void theEncodingIsUrlSafe() {
+		String encoded = new TimestampCursor(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 999_999_999),
+				"??>>id~~").encode();
+
+		assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+	}
+
+	@Test
+	void noCursorMeansTheFirstPage() {
+		assertNull(TimestampCursor.decode(null, "task"));
+		assertNull(TimestampCursor.decode(" ", "task"));
+	}
+
+	@Test
+	void malformedCursorsAreRejectedNamingTheListing() {
+		GeneralException error = assertThrows(GeneralException.class, () -> TimestampCursor.decode("%%%", "message"));
+		assertEquals("Invalid message cursor", error.getMessage());
+
+		assertThrows(GeneralException.class, () -> TimestampCursor.decode(encode("1:0"), "task"));
+		assertThrows(GeneralException.class, () -> TimestampCursor.decode(encode("1:0:"), "task"));
+		assertThrows(GeneralException.class, () -> TimestampCursor.decode(encode("x:0:id"), "task"));
+		assertThrows(GeneralException.class, () -> TimestampCursor.decode(encode("1:2000000000:id"), "task"));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,49 @@
+package com.github.oauth.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectJoinTableRepositoryTest {
+
+	private static final String BUMP = "UPDATE projects SET version = version + 1 WHERE project_id = ? AND version = ?";
+
+	private JdbcTemplate jdbcTemplate;
+	private ProjectJoinTableRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		repository = new ProjectJoinTableRepository(jdbcTemplate);
+	}
+
+	@Test
+	void bumpSucceedsWhenTheVersionStillMatches() {
+		when(jdbcTemplate.update(BUMP, 1L, 5L)).thenReturn(1);
+
+		assertDoesNotThrow(() -> repository.bumpVersion(1L, 5L));
+	}
+
+	@Test
+	void bumpAgainstAStaleVersionIsAnOptimisticLockFailure() {
+		// Another writer already moved the version on, so the guarded UPDATE matches no row
+		when(jdbcTemplate.update(eq(BUMP), eq(1L), eq(4L))).thenReturn(0);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.bumpVersion(1L, 4L));
+	}
+
+	@Test
+	void bumpOnAMissingProjectFailsTheSameWay() {
+		when(jdbcTemplate.update(anyString(), eq(404L), eq(0L))).thenReturn(0);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.bumpVersion(404L, 0L));
+	}
+}
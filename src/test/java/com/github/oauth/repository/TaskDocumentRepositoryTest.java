@@ -0,0 +1,354 @@
+package com.github.oauth.repository;
+
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
+import com.github.oauth.model.TaskTransition;
+import com.github.oauth.repository.TaskDocumentRepository.StatusChange;
+import com.github.oauth.repository.TaskDocumentRepository.VersionedTask;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.FailedPreconditionException;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskDocumentRepositoryTest {
+
+	private static final Timestamp CREATED_AT = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 0);
+	private static final Timestamp READ_AT = Timestamp.ofTimeSecondsAndNanos(1_700_000_500L, 0);
+
+	private Firestore firestore;
+	private CollectionReference tasks;
+	private WriteBatch batch;
+	private TaskDocumentRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		firestore = mock(Firestore.class);
+		tasks = mock(CollectionReference.class);
+		batch = mock(WriteBatch.class);
+		when(firestore.collection("Tasks")).thenReturn(tasks);
+		when(firestore.batch()).thenReturn(batch);
+		when(batch.commit()).thenReturn(ApiFutures.immediateFuture(List.of()));
+		repository = new TaskDocumentRepository(firestore);
+	}
+
+	@Test
+	void creatingATaskRecordsItsFirstStatusInTheSameBatch() {
+		DocumentReference document = document("task-1");
+		Task task = task(TaskStatus.REQUESTED, null);
+
+		repository.save(task, 100L).join();
+
+		verify(batch).set(document, task);
+		TaskTransition entry = historyEntry(document);
+		assertEquals("task-1", entry.getTaskId());
+		assertEquals(1L, entry.getProjectId());
+		assertNull(entry.getFrom());
+		assertEquals(TaskStatus.REQUESTED, entry.getTo());
+		assertEquals(100L, entry.getActorId());
+		verify(batch).commit();
+	}
+
+	@Test
+	void aTransitionUpdatesTheTaskAndAppendsItsHistoryGuardedByTheRead() {
+		DocumentReference document = document("task-1");
+		Timestamp enteredPending = Timestamp.ofTimeSecondsAndNanos(1_700_000_100L, 0);
+		stored(document, task(TaskStatus.PENDING, enteredPending));
+
+		Task previous = repository.transition("task-1", 200L,
+				stored -> new StatusChange(TaskStatus.REQUEST_COMPLETE, Map.of("pullRequestUrl", "https://pr/1"))).join();
+
+		assertEquals(TaskStatus.PENDING, previous.getStatus());
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> fields = ArgumentCaptor.forClass(Map.class);
+		verify(batch).update(eq(document), fields.capture(), eq(Precondition.updatedAt(READ_AT)));
+		assertEquals("REQUEST_COMPLETE", fields.getValue().get("status"));
+		assertEquals("https://pr/1", fields.getValue().get("pullRequestUrl"));
+		TaskTransition entry = historyEntry(document);
+		assertEquals(TaskStatus.PENDING, entry.getFrom());
+		assertEquals(TaskStatus.REQUEST_COMPLETE, entry.getTo());
+		assertEquals(200L, entry.getActorId());
+		assertEquals(enteredPending, entry.getFromSince());
+	}
+
+	@Test
+	void olderTasksCountTheirTimeInStatusFromCreation() {
+		DocumentReference document = document("task-1");
+		stored(document, task(TaskStatus.REQUESTED, null));
+
+		repository.transition("task-1", null, stored -> StatusChange.to(TaskStatus.PENDING)).join();
+
+		TaskTransition entry = historyEntry(document);
+		assertEquals(CREATED_AT, entry.getFromSince());
+		assertNull(entry.getActorId());
+	}
+
+	@Test
+	void aRejectedTransitionWritesNothing() {
+		DocumentReference document = document("task-1");
+		stored(document, task(TaskStatus.COMPLETED, null));
+
+		CompletionException error = assertThrows(CompletionException.class, () -> repository.transition("task-1", 200L,
+				stored -> {
+					throw new GeneralException("Invalid status transition");
+				}).join());
+
+		assertInstanceOf(GeneralException.class, error.getCause());
+		verify(batch, never()).commit();
+	}
+
+	@Test
+	void aConcurrentChangeIsRetriedAndThenGivenUp() {
+		DocumentReference document = document("task-1");
+		stored(document, task(TaskStatus.PENDING, null));
+		when(batch.commit()).thenReturn(ApiFutures.immediateFailedFuture(preconditionFailure()));
+
+		CompletionException error = assertThrows(CompletionException.class, () -> repository.transition("task-1", 200L,
+				stored -> StatusChange.to(TaskStatus.REQUEST_COMPLETE)).join());
+
+		assertInstanceOf(OptimisticLockingFailureException.class, error.getCause());
+		verify(document, times(3)).get();
+		verify(batch, times(3)).update(eq(document), anyMap(), any(Precondition.class));
+	}
+
+	@Test
+	void aLegacyIdResolvesToTheMovedTask() {
+		missing(document("7_fix login_1"));
+		Task moved = task(TaskStatus.PENDING, null);
+		moved.setId(null);
+		QueryDocumentSnapshot match = mock(QueryDocumentSnapshot.class);
+		when(match.getId()).thenReturn("01HF0000000000000000000000");
+		when(match.toObject(Task.class)).thenReturn(moved);
+		Query byLegacyId = query(tasks, List.of(match));
+		when(tasks.whereEqualTo("legacyId", "7_fix login_1")).thenReturn(byLegacyId);
+
+		Optional<Task> found = repository.findById("7_fix login_1").join();
+
+		assertEquals("01HF0000000000000000000000", found.orElseThrow().getId());
+	}
+
+	@Test
+	void aMissingUlidIsNotLookedUpAsALegacyId() {
+		missing(document("01HF0000000000000000000000"));
+
+		assertTrue(repository.findById("01HF0000000000000000000000").join().isEmpty());
+		verify(tasks, never()).whereEqualTo(anyString(), any());
+	}
+
+	@Test
+	void movingToAUlidCopiesTheHistoryAndKeepsTheOldId() {
+		DocumentReference legacy = document("7_fix login_1");
+		DocumentReference moved = mock(DocumentReference.class);
+		CollectionReference movedHistory = mock(CollectionReference.class);
+		DocumentReference movedEntry = mock(DocumentReference.class);
+		when(tasks.document(argThat(Ulid::isUlid))).thenReturn(moved);
+		when(moved.collection("transitions")).thenReturn(movedHistory);
+		when(movedHistory.document("entry-1")).thenReturn(movedEntry);
+
+		DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+		when(snapshot.exists()).thenReturn(true);
+		when(snapshot.getTimestamp("createdAt")).thenReturn(CREATED_AT);
+		when(snapshot.getData()).thenReturn(new HashMap<>(Map.of("status", "PENDING", "projectId", 1L)));
+		when(snapshot.getUpdateTime()).thenReturn(READ_AT);
+		when(legacy.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+		QueryDocumentSnapshot entry = mock(QueryDocumentSnapshot.class);
+		DocumentReference legacyEntry = mock(DocumentReference.class);
+		when(entry.getId()).thenReturn("entry-1");
+		when(entry.getData()).thenReturn(Map.of("taskId", "7_fix login_1", "to", "PENDING"));
+		when(entry.getReference()).thenReturn(legacyEntry);
+		CollectionReference legacyHistory = legacy.collection("transitions");
+		QuerySnapshot history = mock(QuerySnapshot.class);
+		when(history.getDocuments()).thenReturn(List.of(entry));
+		when(legacyHistory.get()).thenReturn(ApiFutures.immediateFuture(history));
+
+		String newId = repository.moveToUlid("7_fix login_1").join().orElseThrow();
+
+		assertTrue(Ulid.isUlid(newId));
+		// The ULID carries the original creation time, so listings keep their order
+		assertEquals(Ulid.at(CREATED_AT.toDate().getTime()).substring(0, 10), newId.substring(0, 10));
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> data = ArgumentCaptor.forClass(Map.class);
+		verify(batch).create(eq(moved), data.capture());
+		assertEquals(newId, data.getValue().get("id"));
+		assertEquals("7_fix login_1", data.getValue().get("legacyId"));
+		verify(batch).create(movedEntry, Map.of("taskId", newId, "to", "PENDING"));
+		verify(batch).delete(legacyEntry);
+		verify(batch).delete(legacy, Precondition.updatedAt(READ_AT));
+	}
+
+	@Test
+	void largeVerdictSetsAreSplitAtTheBatchLimit() {
+		List<List<String>> commits = recordCommits(Set.of());
+
+		List<String> conflicted = repository.applyTransitions(verdicts(300), null).join();
+
+		assertTrue(conflicted.isEmpty());
+		assertEquals(List.of(250, 50), commits.stream().map(List::size).toList());
+	}
+
+	@Test
+	void aFailedBatchIsBisectedUntilTheStaleTasksAreIsolated() {
+		List<List<String>> commits = recordCommits(Set.of("t2", "t5"));
+
+		List<String> conflicted = repository.applyTransitions(verdicts(8), null).join();
+
+		assertEquals(Set.of("t2", "t5"), Set.copyOf(conflicted));
+		// Every other task was written exactly once
+		List<String> written = new ArrayList<>();
+		commits.stream().filter(ids -> !ids.contains("t2") && !ids.contains("t5")).forEach(written::addAll);
+		assertEquals(Set.of("t0", "t1", "t3", "t4", "t6", "t7"), Set.copyOf(written));
+		assertEquals(6, written.size());
+		// The full batch, both halves, four quarters and the four singles under the stale quarters
+		assertEquals(List.of(8, 4, 4, 2, 2, 2, 2, 1, 1, 1, 1),
+				commits.stream().map(List::size).sorted(Comparator.reverseOrder()).toList());
+	}
+
+	@Test
+	void otherBatchFailuresAreNotRetried() {
+		WriteBatch failing = mock(WriteBatch.class);
+		when(firestore.batch()).thenReturn(failing);
+		when(failing.commit()).thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("down")));
+		for (int i = 0; i < 4; i++)
+			document("t" + i);
+
+		assertThrows(CompletionException.class, () -> repository.applyTransitions(verdicts(4), null).join());
+		verify(firestore, times(1)).batch();
+	}
+
+	/**
+	 * Gives every batch its own mock that remembers which tasks it updates, and fails its
+	 * commit on the update-time precondition when it includes one of {@code stale}. Returns
+	 * the task IDs of each commit attempt, in order.
+	 */
+	private List<List<String>> recordCommits(Set<String> stale) {
+		List<List<String>> commits = new ArrayList<>();
+		when(firestore.batch()).thenAnswer(invocation -> {
+			WriteBatch recording = mock(WriteBatch.class);
+			List<String> ids = new ArrayList<>();
+			when(recording.update(any(DocumentReference.class), anyMap(), any(Precondition.class)))
+					.thenAnswer(update -> {
+						ids.add(update.getArgument(0, DocumentReference.class).getId());
+						return recording;
+					});
+			when(recording.commit()).thenAnswer(commit -> {
+				commits.add(ids);
+				return ids.stream().anyMatch(stale::contains)
+						? ApiFutures.immediateFailedFuture(preconditionFailure())
+						: ApiFutures.immediateFuture(List.of());
+			});
+			return recording;
+		});
+		return commits;
+	}
+
+	private Map<VersionedTask, StatusChange> verdicts(int count) {
+		Map<VersionedTask, StatusChange> changes = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			document("t" + i);
+			Task task = task(TaskStatus.REQUEST_COMPLETE, null);
+			task.setId("t" + i);
+			changes.put(new VersionedTask(task, READ_AT), StatusChange.to(TaskStatus.COMPLETED));
+		}
+		return changes;
+	}
+
+	static FailedPreconditionException preconditionFailure() {
+		return new FailedPreconditionException("changed", null,
+				GrpcStatusCode.of(Status.Code.FAILED_PRECONDITION), false);
+	}
+
+	private DocumentReference document(String id) {
+		DocumentReference document = mock(DocumentReference.class);
+		CollectionReference history = mock(CollectionReference.class);
+		DocumentReference entry = mock(DocumentReference.class);
+		when(tasks.document(id)).thenReturn(document);
+		when(document.getId()).thenReturn(id);
+		when(document.collection("transitions")).thenReturn(history);
+		when(history.document()).thenReturn(entry);
+		return document;
+	}
+
+	private static void stored(DocumentReference document, Task task) {
+		DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+		when(snapshot.exists()).thenReturn(true);
+		when(snapshot.getId()).thenReturn(task.getId());
+		when(snapshot.toObject(Task.class)).thenReturn(task);
+		when(snapshot.getUpdateTime()).thenReturn(READ_AT);
+		when(document.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+	}
+
+	private static void missing(DocumentReference document) {
+		DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+		when(snapshot.exists()).thenReturn(false);
+		when(document.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+	}
+
+	private static Query query(CollectionReference collection, List<QueryDocumentSnapshot> documents) {
+		Query query = mock(Query.class);
+		QuerySnapshot snapshot = mock(QuerySnapshot.class);
+		when(snapshot.isEmpty()).thenReturn(documents.isEmpty());
+		when(snapshot.getDocuments()).thenReturn(documents);
+		when(query.limit(anyInt())).thenReturn(query);
+		when(query.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+		return query;
+	}
+
+	private TaskTransition historyEntry(DocumentReference document) {
+		DocumentReference entryDocument = document.collection("transitions").document();
+		ArgumentCaptor<TaskTransition> entry = ArgumentCaptor.forClass(TaskTransition.class);
+		verify(batch).create(eq(entryDocument), entry.capture());
+		return entry.getValue();
+	}
+
+	private static Task task(TaskStatus status, Timestamp statusChangedAt) {
+		Task task = new Task();
+		task.setId("task-1");
+		task.setProjectId(1L);
+		task.setAssignedTo(200L);
+		task.setStatus(status);
+		task.setCreatedAt(CREATED_AT);
+		task.setStatusChangedAt(statusChangedAt);
+		return task;
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.oauth.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UlidTest {
+
+	@Test
+	void idsMadeInABurstAreStrictlyIncreasing() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++)
+			ids.add(Ulid.next());
+
+		for (int i = 1; i < ids.size(); i++)
+			assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " !< " + ids.get(i));
+		ids.forEach(id -> assertTrue(Ulid.isUlid(id), id));
+	}
+
+	@Test
+	void backfilledIdsSortByTheirCreationTime() {
+		long createdAt = 1_700_000_000_000L;
+
+		String earlier = Ulid.at(createdAt);
+		String later = Ulid.at(createdAt + 1);
+
+		assertTrue(earlier.compareTo(later) < 0);
+		// The first ten characters are the time alone
+		assertEquals(earlier.substring(0, 10), Ulid.at(createdAt).substring(0, 10));
+		assertTrue(Ulid.at(0).startsWith("0000000000"));
+		assertTrue(Ulid.isUlid(earlier));
+	}
+
+	@Test
+	void legacyIdsAreNotMistakenForUlids() {
+		assertFalse(Ulid.isUlid("42_Fix the login page_7"));
+		assertFalse(Ulid.isUlid(null));
+		assertFalse(Ulid.isUlid(Ulid.next().toLowerCase()));
+		assertFalse(Ulid.isUlid(Ulid.next().substring(1)));
+		// I, L, O and U are not in the alphabet, and the first character only carries 3 bits
+		assertFalse(Ulid.isUlid("01ARZ3NDEKTSV4RRFFQ69G5FAI"));
+		assertFalse(Ulid.isUlid("81ARZ3NDEKTSV4RRFFQ69G5FAV"));
+		assertTrue(Ulid.isUlid("01ARZ3NDEKTSV4RRFFQ69G5FAV"));
+	}
+}
@@ -0,0 +1,167 @@
+package com.github.oauth.service;
+
+import com.github.oauth.exception.CapacityExceededException;
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.repository.MessageDocumentRepository;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.InvalidArgumentException;
+import com.google.api.gax.rpc.UnavailableException;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageWriteBufferTest {
+
+	private MessageDocumentRepository messageDocumentRepository;
+	// Message IDs of every saveAll call, in order
+	private List<List<String>> commits;
+	private MessageWriteBuffer buffer;
+
+	@BeforeEach
+	void setUp() {
+		messageDocumentRepository = mock(MessageDocumentRepository.class);
+		commits = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (buffer != null)
+			buffer.stop();
+	}
+
+	@Test
+	void messagesQueuedTogetherShareOneCommit() {
+		buffer = buffer(100, 500, 1024);
+		saveAllSucceeds();
+		List<CompletableFuture<Void>> written = enqueue("m1", "m2", "m3", "m4", "m5");
+
+		buffer.start();
+
+		await(written);
+		assertEquals(List.of(List.of("m1", "m2", "m3", "m4", "m5")), commits);
+	}
+
+	@Test
+	void batchesAreCappedAtTheMaximumSize() {
+		buffer = buffer(100, 3, 1024);
+		saveAllSucceeds();
+		List<CompletableFuture<Void>> written = enqueue("m1", "m2", "m3", "m4", "m5");
+
+		buffer.start();
+
+		await(written);
+		assertEquals(List.of(List.of("m1", "m2", "m3"), List.of("m4", "m5")), commits);
+	}
+
+	@Test
+	void aFullBufferRejectsInsteadOfGrowing() {
+		buffer = buffer(2, 500, 1024);
+		enqueue("m1", "m2");
+
+		assertThrows(CapacityExceededException.class, () -> buffer.enqueue("m3", message("hello")));
+		assertTrue(buffer.pendingWrite("m2").isPresent());
+		assertFalse(buffer.pendingWrite("m3").isPresent());
+	}
+
+	@Test
+	void oversizedMessagesAreRefusedBeforeQueueing() {
+		buffer = buffer(100, 500, 64);
+
+		assertThrows(GeneralException.class, () -> buffer.enqueue("big", message("x".repeat(100))));
+		assertFalse(buffer.pendingWrite("big").isPresent());
+	}
+
+	@Test
+	void aPermanentlyFailingBatchFallsBackToOneMessageAtATime() {
+		buffer = buffer(100, 500, 1024);
+		when(messageDocumentRepository.saveAll(any())).thenAnswer(invocation -> {
+			Map<String, Map<String, Object>> messages = invocation.getArgument(0);
+			commits.add(List.copyOf(messages.keySet()));
+			return messages.containsKey("bad")
+					? CompletableFuture.failedFuture(new InvalidArgumentException("too big", null,
+							GrpcStatusCode.of(Status.Code.INVALID_ARGUMENT), false))
+					: CompletableFuture.completedFuture(null);
+		});
+		List<CompletableFuture<Void>> written = enqueue("m1", "bad", "m3");
+
+		buffer.start();
+
+		CompletionException error = assertThrows(CompletionException.class, () -> written.get(1).join());
+		assertInstanceOf(InvalidArgumentException.class, error.getCause());
+		written.get(0).join();
+		written.get(2).join();
+		assertEquals(List.of("m1", "bad", "m3"), commits.get(0));
+		assertEquals(4, commits.size());
+		assertFalse(buffer.pendingWrite("bad").isPresent());
+	}
+
+	@Test
+	void transientFailuresAreRetriedAsAWholeBatch() {
+		buffer = buffer(100, 500, 1024);
+		AtomicInteger attempts = new AtomicInteger();
+		when(messageDocumentRepository.saveAll(any())).thenAnswer(invocation -> {
+			Map<String, Map<String, Object>> messages = invocation.getArgument(0);
+			commits.add(List.copyOf(messages.keySet()));
+			return attempts.incrementAndGet() == 1
+					? CompletableFuture.failedFuture(new UnavailableException("try again", null,
+							GrpcStatusCode.of(Status.Code.UNAVAILABLE), true))
+					: CompletableFuture.completedFuture(null);
+		});
+		List<CompletableFuture<Void>> written = enqueue("m1", "m2");
+
+		buffer.start();
+
+		await(written);
+		assertEquals(List.of(List.of("m1", "m2"), List.of("m1", "m2")), commits);
+	}
+
+	private MessageWriteBuffer buffer(int capacity, int maxBatchSize, int maxMessageBytes) {
+		// A generous flush interval so everything queued before start() lands in the first batch
+		return new MessageWriteBuffer(messageDocumentRepository, new SimpleMeterRegistry(), capacity,
+				Duration.ofMillis(200), maxBatchSize, 4, maxMessageBytes);
+	}
+
+	private void saveAllSucceeds() {
+		when(messageDocumentRepository.saveAll(any())).thenAnswer(invocation -> {
+			Map<String, Map<String, Object>> messages = invocation.getArgument(0);
+			commits.add(List.copyOf(messages.keySet()));
+			return CompletableFuture.completedFuture(null);
+		});
+	}
+
+	private List<CompletableFuture<Void>> enqueue(String... messageIds) {
+		List<CompletableFuture<Void>> written = new ArrayList<>();
+		for (String messageId : messageIds)
+			written.add(buffer.enqueue(messageId, message("text of " + messageId)));
+		return written;
+	}
+
+	private static Map<String, Object> message(String text) {
+		return Map.of("senderId", 200L, "projectId", 1L, "message", text);
+	}
+
+	private static void await(List<CompletableFuture<Void>> written) {
+		CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).orTimeout(10, TimeUnit.SECONDS).join();
+	}
+}
@@ -0,0 +1,132 @@
+package com.github.oauth.service;
+
+import com.github.oauth.config.EntityCacheInvalidator;
+import com.github.oauth.model.Role;
+import com.github.oauth.model.User;
+import com.github.oauth.repository.RoleRepository;
+import com.github.oauth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.client.RestOperations;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OAuth2UserServiceTest {
+
+	private static final Map<String, Object> PROFILE = Map.of("id", 9001, "login", "octocat",
+			"name", "The Octocat", "email", "octocat@example.com", "avatar_url", "https://avatars.example/1");
+
+	private UserRepository userRepository;
+	private EntityCacheInvalidator entityCacheInvalidator;
+	private OAuth2UserService oAuth2UserService;
+	private User user;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		entityCacheInvalidator = mock(EntityCacheInvalidator.class);
+		oAuth2UserService = new OAuth2UserService(userRepository, mock(RoleRepository.class), entityCacheInvalidator);
+
+		RestOperations restOperations = mock(RestOperations.class);
+		ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(PROFILE);
+		when(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+				.thenReturn(response);
+		oAuth2UserService.setRestOperations(restOperations);
+
+		user = new User();
+		user.setId(42L);
+		user.setGithubId("9001");
+		user.setLogin("octocat");
+		user.setName("The Octocat");
+		user.setEmail("octocat@example.com");
+		user.setAvatarUrl("https://avatars.example/1");
+		user.setAccessToken("token-1");
+		user.setTokenExpiryDate(LocalDateTime.now().plusYears(1));
+		user.setRoles(new HashSet<>(Set.of(new Role())));
+		when(userRepository.findByGithubId("9001")).thenReturn(Optional.of(user));
+	}
+
+	@Test
+	void aNewTokenIsRecordedWithTheNarrowUpdate() {
+		user.setLastLoginAt(LocalDateTime.now());
+
+		oAuth2UserService.loadUser(request("token-2"));
+
+		verify(userRepository).updateLogin(eq(42L), eq("token-2"), any(), any());
+		verify(userRepository, never()).save(any());
+		verify(entityCacheInvalidator).evict(User.class, 42L);
+	}
+
+	@Test
+	void aRepeatedSignInWithinTheResolutionWritesNothing() {
+		user.setLastLoginAt(LocalDateTime.now());
+
+		oAuth2UserService.loadUser(request("token-1"));
+
+		verify(userRepository, never()).updateLogin(anyLong(), any(), any(), any());
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void anOldLastLoginIsRefreshedEvenWithTheSameToken() {
+		user.setLastLoginAt(LocalDateTime.now().minusHours(1));
+
+		oAuth2UserService.loadUser(request("token-1"));
+
+		verify(userRepository).updateLogin(eq(42L), eq("token-1"), eq(user.getTokenExpiryDate()), any());
+	}
+
+	@Test
+	void aChangedProfileIsSavedWithAFreshLastLogin() {
+		LocalDateTime before = LocalDateTime.now().minusDays(1);
+		user.setLastLoginAt(before);
+		user.setEmail("old@example.com");
+
+		oAuth2UserService.loadUser(request("token-1"));
+
+		ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+		verify(userRepository).save(saved.capture());
+		assertEquals("octocat@example.com", saved.getValue().getEmail());
+		assertTrue(saved.getValue().getLastLoginAt().isAfter(before));
+		verify(userRepository, never()).updateLogin(anyLong(), any(), any(), any());
+	}
+
+	private static OAuth2UserRequest request(String token) {
+		ClientRegistration registration = ClientRegistration.withRegistrationId("github")
+				.clientId("client")
+				.authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+				.redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+				.authorizationUri("https://github.example/login/oauth/authorize")
+				.tokenUri("https://github.example/login/oauth/access_token")
+				.userInfoUri("https://api.github.example/user")
+				.userNameAttributeName("id")
+				.build();
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, token,
+				Instant.now(), null);
+		return new OAuth2UserRequest(registration, accessToken);
+	}
+}
@@ -0,0 +1,134 @@
+package com.github.oauth.service;
+
+import com.github.oauth.model.ProjectStatus;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectTechLink;
+import com.github.oauth.service.ProjectRecommendationService.Recommendation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectRecommendationServiceTest {
+
+	private static final Set<Integer> USER_TECHS = Set.of(1, 2);
+
+	private ProjectTechIndex projectTechIndex;
+
+	@BeforeEach
+	void setUp() {
+		// Tech 1 is used by five projects and tech 2 by four, so tech 2 is the rarer and weighs more
+		List<ProjectTechLink> links = new ArrayList<>();
+		addProject(links, 1, ProjectStatus.OPEN, 1, 2);
+		addProject(links, 2, ProjectStatus.OPEN, 1, 2, 3);
+		addProject(links, 3, ProjectStatus.OPEN, 1);
+		addProject(links, 4, ProjectStatus.OPEN, 2);
+		addProject(links, 5, ProjectStatus.COMPLETED, 1, 2);
+		addProject(links, 6, ProjectStatus.OPEN, 3);
+		addProject(links, 7, ProjectStatus.OPEN, 1, 4);
+
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findAllTechLinks()).thenReturn(links);
+		projectTechIndex = new ProjectTechIndex(projectRepository);
+		projectTechIndex.rebuild();
+	}
+
+	@Test
+	void ranksOpenOverlappingProjectsByWeightedJaccard() {
+		List<Recommendation> top = service(10).recommend(1L, USER_TECHS, Set::of);
+
+		// 5 is closed and 6 shares no tech; 4 beats 3 because its one shared tech is the rarer one
+		assertEquals(List.of(1L, 2L, 4L, 3L, 7L), projectIds(top));
+		assertEquals(1.0, top.get(0).score(), 1e-9);
+		assertTrue(top.get(3).score() < top.get(2).score());
+	}
+
+	@Test
+	void keepsOnlyTheTopK() {
+		assertEquals(List.of(1L, 2L, 4L), projectIds(service(3).recommend(1L, USER_TECHS, Set::of)));
+	}
+
+	@Test
+	void leavesOutProjectsTheUserBelongsTo() {
+		assertEquals(List.of(2L, 4L, 3L), projectIds(service(3).recommend(1L, USER_TECHS, () -> Set.of(1L))));
+	}
+
+	@Test
+	void cachedListIsReusedAndPatchedWhenTheUserJoinsAProject() {
+		ProjectRecommendationService service = service(3);
+		AtomicInteger membershipLookups = new AtomicInteger();
+		Supplier<Set<Long>> memberships = () -> {
+			membershipLookups.incrementAndGet();
+			return Set.of();
+		};
+
+		service.recommend(1L, USER_TECHS, memberships);
+		service.onUserJoinedProject(1L, 2L);
+		List<Recommendation> afterJoin = service.recommend(1L, USER_TECHS, memberships);
+
+		assertEquals(1, membershipLookups.get());
+		assertEquals(List.of(1L, 4L, 3L), projectIds(afterJoin));
+	}
+
+	@Test
+	void projectChangesDropCachedListsSoTheyAreRecomputed() {
+		ProjectRecommendationService service = service(3);
+		service.recommend(1L, USER_TECHS, Set::of);
+
+		projectTechIndex.index(8, List.of(1, 2), true);
+		service.onProjectChanged(8);
+
+		// 8 ties 1 on a perfect score and is placed after it by project ID
+		assertEquals(List.of(1L, 8L), projectIds(service.recommend(1L, USER_TECHS, Set::of)).subList(0, 2));
+	}
+
+	@Test
+	void techChangesRescoreTheCachedList() {
+		ProjectRecommendationService service = service(3);
+		service.recommend(1L, USER_TECHS, Set::of);
+
+		service.onUserTechChanged(1L, Set.of(3));
+
+		assertEquals(List.of(6L, 2L), projectIds(service.recommend(1L, Set.of(3), Set::of)));
+	}
+
+	private ProjectRecommendationService service(int topK) {
+		return new ProjectRecommendationService(projectTechIndex, topK, 100, Duration.ofMinutes(10));
+	}
+
+	private static List<Long> projectIds(List<Recommendation> recommendations) {
+		return recommendations.stream().map(Recommendation::projectId).toList();
+	}
+
+	private static void addProject(List<ProjectTechLink> links, long projectId, ProjectStatus status,
+			int... techIds) {
+		for (int techId : techIds) {
+			links.add(new ProjectTechLink() {
+				@Override
+				public Long getProjectId() {
+					return projectId;
+				}
+
+				@Override
+				public Integer getTechId() {
+					return techId;
+				}
+
+				@Override
+				public ProjectStatus getProjectStatus() {
+					return status;
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.github.oauth.service;
+
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.service.ProjectSearchIndex.Hit;
+import com.github.oauth.service.ProjectSearchIndex.Hits;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ProjectSearchIndexTest {
+
+	private ProjectSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		index = new ProjectSearchIndex(mock(ProjectRepository.class));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		index.close();
+	}
+
+	@Test
+	void exactMatchesRankAbovePrefixesWhichRankAboveTypos() {
+		index.index(1, "chap", "a small project", List.of());
+		index.index(2, "chatbot", "a small project", List.of());
+		index.index(3, "chat", "a small project", List.of());
+		index.index(4, "checkout", "a small project", List.of());
+
+		// "checkout" is neither a prefix match nor within one edit of "chat"
+		assertEquals(List.of(3L, 2L, 1L), projectIds(index.search("chat", Set.of(), 0, 10)));
+	}
+
+	@Test
+	void longerWordsTolerateTwoEditsAndShortOnesNone() {
+		index.index(1, "inventory service", "", List.of());
+		index.index(2, "go", "", List.of());
+
+		assertEquals(List.of(1L), projectIds(index.search("invnetory", Set.of(), 0, 10)));
+		assertTrue(index.search("gp", Set.of(), 0, 10).hits().isEmpty());
+	}
+
+	@Test
+	void everyQueryWordMustMatch() {
+		index.index(1, "payment gateway", "", List.of());
+		index.index(2, "payment dashboard", "", List.of());
+
+		assertEquals(List.of(1L), projectIds(index.search("payment gateway", Set.of(), 0, 10)));
+	}
+
+	@Test
+	void nameHitsOutweighDescriptionHits() {
+		index.index(1, "tracker", "keeps an inventory of parts", List.of());
+		index.index(2, "inventory", "keeps a tracker of parts", List.of());
+
+		assertEquals(List.of(2L, 1L), projectIds(index.search("inventory", Set.of(), 0, 10)));
+	}
+
+	@Test
+	void techFilterKeepsProjectsUsingAnyGivenTech() {
+		index.index(1, "chat", "", List.of(10));
+		index.index(2, "chat", "", List.of(20));
+		index.index(3, "chat", "", List.of(10, 30));
+
+		assertEquals(Set.of(1L, 3L), Set.copyOf(projectIds(index.search("chat", Set.of(10), 0, 10))));
+		assertEquals(Set.of(2L, 3L), Set.copyOf(projectIds(index.search("chat", Set.of(20, 30), 0, 10))));
+	}
+
+	@Test
+	void pagesByOffsetAndReportsWhetherMoreRemain() {
+		for (long id = 1; id <= 5; id++) {
+			index.index(id, "chat", "", List.of());
+		}
+
+		Hits first = index.search("chat", Set.of(), 0, 2);
+		Hits last = index.search("chat", Set.of(), 4, 2);
+
+		assertEquals(2, first.hits().size());
+		assertTrue(first.hasMore());
+		assertEquals(1, last.hits().size());
+		assertFalse(last.hasMore());
+	}
+
+	@Test
+	void reindexReplacesAndRemoveDeletes() {
+		index.index(1, "chat", "", List.of());
+		index.index(1, "forum", "", List.of());
+		assertTrue(index.search("chat", Set.of(), 0, 10).hits().isEmpty());
+
+		index.remove(1);
+		assertTrue(index.search("forum", Set.of(), 0, 10).hits().isEmpty());
+	}
+
+	private static List<Long> projectIds(Hits hits) {
+		return hits.hits().stream().map(Hit::projectId).toList();
+	}
+}
@@ -0,0 +1,121 @@
+package com.github.oauth.service;
+
+import com.github.oauth.model.ProjectStatus;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectTechLink;
+import com.github.oauth.service.ProjectTechIndex.Match;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectTechIndexTest {
+
+	private static final Set<Integer> QUERY = Set.of(1, 2, 3);
+
+	private ProjectTechIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProjectTechIndex(mock(ProjectRepository.class));
+		index.index(10, List.of(1, 2, 3), true);
+		index.index(4, List.of(1, 2), true);
+		index.index(7, List.of(2, 3, 9), true);
+		index.index(2, List.of(3), true);
+		index.index(5, List.of(1), false);
+		index.index(8, List.of(9), true);
+	}
+
+	@Test
+	void ranksByMatchCountThenLowerProjectId() {
+		List<Match> ranked = index.rankAfter(QUERY, Long.MAX_VALUE, 0L, 10);
+
+		// Project 8 shares no queried tech; 4 and 7 tie on two matches, 2 and 5 on one
+		assertEquals(List.of(new Match(10, 3), new Match(4, 2), new Match(7, 2), new Match(2, 1), new Match(5, 1)),
+				ranked);
+	}
+
+	@Test
+	void limitKeepsTheBestMatchesNotTheFirstSeen() {
+		assertEquals(List.of(new Match(10, 3), new Match(4, 2)), index.rankAfter(QUERY, Long.MAX_VALUE, 0L, 2));
+	}
+
+	@Test
+	void pagingFromATieResumesAtTheNextProjectIdWithTheSameCount() {
+		assertEquals(List.of(new Match(7, 2), new Match(2, 1)), index.rankAfter(QUERY, 2, 4L, 2));
+		assertEquals(List.of(new Match(5, 1)), index.rankAfter(QUERY, 1, 2L, 2));
+		assertTrue(index.rankAfter(QUERY, 1, 5L, 2).isEmpty());
+	}
+
+	@Test
+	void walkingEveryPageMatchesOneUnlimitedRanking() {
+		List<Match> all = index.rankAfter(QUERY, Long.MAX_VALUE, 0L, Integer.MAX_VALUE);
+
+		List<Match> paged = new ArrayList<>();
+		long afterCount = Long.MAX_VALUE;
+		long afterId = 0L;
+		List<Match> page;
+		while (!(page = index.rankAfter(QUERY, afterCount, afterId, 1)).isEmpty()) {
+			paged.addAll(page);
+			afterCount = page.get(0).matchCount();
+			afterId = page.get(0).projectId();
+		}
+		assertEquals(all, paged);
+	}
+
+	@Test
+	void reindexReplacesAProjectsTechsAndRemoveDropsIt() {
+		index.index(10, List.of(9), true);
+		assertEquals(List.of(new Match(4, 2), new Match(7, 2)), index.rankAfter(QUERY, Long.MAX_VALUE, 0L, 2));
+		assertArrayEquals(new int[] { 9 }, index.techsOf(10));
+
+		index.remove(4);
+		assertEquals(0, index.techsOf(4).length);
+		assertFalse(index.isOpen(4));
+		assertEquals(new Match(7, 2), index.rankAfter(QUERY, Long.MAX_VALUE, 0L, 1).get(0));
+	}
+
+	@Test
+	void rebuildLoadsLinksAndOnlyOpenProjectsAreRecommendable() {
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findAllTechLinks()).thenReturn(List.of(
+				link(1, 1, ProjectStatus.OPEN), link(1, 2, ProjectStatus.OPEN), link(2, 2, ProjectStatus.COMPLETED)));
+		ProjectTechIndex rebuilt = new ProjectTechIndex(projectRepository);
+
+		rebuilt.rebuild();
+
+		assertTrue(rebuilt.isReady());
+		assertEquals(2, rebuilt.projectCount());
+		assertEquals(2, rebuilt.projectCountForTech(2));
+		assertTrue(rebuilt.openProjectsUsingAny(Set.of(2)).contains(1L));
+		assertFalse(rebuilt.openProjectsUsingAny(Set.of(2)).contains(2L));
+	}
+
+	private static ProjectTechLink link(long projectId, int techId, ProjectStatus status) {
+		return new ProjectTechLink() {
+			@Override
+			public Long getProjectId() {
+				return projectId;
+			}
+
+			@Override
+			public Integer getTechId() {
+				return techId;
+			}
+
+			@Override
+			public ProjectStatus getProjectStatus() {
+				return status;
+			}
+		};
+	}
+}
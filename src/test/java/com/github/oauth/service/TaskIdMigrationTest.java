@@ -0,0 +1,69 @@
+package com.github.oauth.service;
+
+import com.github.oauth.repository.TaskDocumentRepository;
+import com.github.oauth.repository.Ulid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TaskIdMigrationTest {
+
+	private TaskDocumentRepository taskDocumentRepository;
+	private List<Runnable> scheduled;
+	private TaskIdMigration migration;
+
+	@BeforeEach
+	void setUp() {
+		taskDocumentRepository = mock(TaskDocumentRepository.class);
+		scheduled = new ArrayList<>();
+		migration = new TaskIdMigration(taskDocumentRepository, scheduled::add);
+	}
+
+	@Test
+	void startupOnlySchedulesTheMigration() {
+		migration.start();
+
+		assertEquals(1, scheduled.size());
+		verifyNoInteractions(taskDocumentRepository);
+	}
+
+	@Test
+	void legacyIdsAreMovedPageByPageAndUlidsLeftAlone() {
+		String ulid = Ulid.next();
+		List<String> firstPage = new ArrayList<>();
+		firstPage.add(ulid);
+		for (int i = 1; i < 200; i++)
+			firstPage.add("7_task " + i + "_1");
+		when(taskDocumentRepository.findIdsAfter(isNull(), anyInt()))
+				.thenReturn(CompletableFuture.completedFuture(firstPage));
+		when(taskDocumentRepository.findIdsAfter("7_task 199_1", 200))
+				.thenReturn(CompletableFuture.completedFuture(List.of("9_last_2")));
+		when(taskDocumentRepository.moveToUlid(any()))
+				.thenReturn(CompletableFuture.completedFuture(Optional.of(Ulid.next())));
+		when(taskDocumentRepository.moveToUlid("7_task 5_1"))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("changed meanwhile")));
+
+		migration.start();
+		scheduled.forEach(Runnable::run);
+
+		verify(taskDocumentRepository, never()).moveToUlid(ulid);
+		verify(taskDocumentRepository).moveToUlid("7_task 1_1");
+		// A task that could not be moved does not stop the rest
+		verify(taskDocumentRepository).moveToUlid("7_task 6_1");
+		verify(taskDocumentRepository).moveToUlid("9_last_2");
+	}
+}
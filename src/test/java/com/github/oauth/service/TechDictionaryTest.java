@@ -0,0 +1,89 @@
+package com.github.oauth.service;
+
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.Tech;
+import com.github.oauth.repository.TechRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TechDictionaryTest {
+
+	private TechRepository techRepository;
+	private TechDictionary dictionary;
+
+	@BeforeEach
+	void setUp() {
+		techRepository = mock(TechRepository.class);
+		when(techRepository.findAll()).thenReturn(List.of(new Tech(1, "Java"), new Tech(2, "Spring")));
+		dictionary = new TechDictionary(techRepository);
+		dictionary.refresh();
+	}
+
+	@Test
+	void knownNamesResolveWithoutAQuery() {
+		assertEquals(Set.of(1, 2), dictionary.resolveIds(List.of("Java", "Spring")));
+		verify(techRepository, never()).findByTechNameIn(anyCollection());
+	}
+
+	@Test
+	void namesMissingFromTheSnapshotAreLoadedOnceInOneQuery() {
+		when(techRepository.findByTechNameIn(Set.of("Go", "Rust")))
+				.thenReturn(List.of(new Tech(3, "Go"), new Tech(4, "Rust")));
+
+		assertEquals(Set.of(1, 3, 4), dictionary.resolveIds(List.of("Java", "Go", "Rust")));
+		// Now part of the snapshot, so resolving them again does not query
+		assertEquals(Set.of(3, 4), dictionary.resolveIds(List.of("Go", "Rust")));
+		verify(techRepository, times(1)).findByTechNameIn(anyCollection());
+	}
+
+	@Test
+	void unknownNameFailsAfterRegisteringTheOnesThatWereFound() {
+		when(techRepository.findByTechNameIn(Set.of("Go", "Cobol++"))).thenReturn(List.of(new Tech(3, "Go")));
+
+		ResourceNotFound error = assertThrows(ResourceNotFound.class,
+				() -> dictionary.resolve(List.of("Java", "Go", "Cobol++")));
+
+		assertTrue(error.getMessage().contains("Cobol++"));
+		assertEquals(3, dictionary.find("Go").orElseThrow().getId());
+	}
+
+	@Test
+	void registerAddsToTheSnapshot() {
+		dictionary.register(List.of(new Tech(5, "Kotlin")));
+
+		assertEquals(Set.of(5), dictionary.resolveIds(List.of("Kotlin")));
+		verify(techRepository, never()).findByTechNameIn(anyCollection());
+	}
+
+	@Test
+	void callersGetCopiesTheyCannotUseToChangeTheSnapshot() {
+		Tech first = dictionary.find("Java").orElseThrow();
+		first.setTechName("Changed");
+
+		Tech second = dictionary.find("Java").orElseThrow();
+		assertNotSame(first, second);
+		assertEquals("Java", second.getTechName());
+	}
+
+	@Test
+	void resolvingBeforeStartupLoadsTheSnapshotLazily() {
+		TechDictionary cold = new TechDictionary(techRepository);
+
+		assertEquals(Set.of(1), cold.resolveIds(List.of("Java")));
+		verify(techRepository, times(2)).findAll();
+	}
+}
@@ -0,0 +1,151 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.model.Message;
+import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.MessageDTO;
+import com.github.oauth.payload.TimestampCursor;
+import com.github.oauth.repository.MessageDocumentRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.service.MessageWriteBuffer;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.PushEvent;
+import com.github.oauth.service.PushEventHub;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MessageServiceImplTest {
+
+	private static final long PROJECT_ID = 1L;
+	private static final long MEMBER_ID = 200L;
+
+	private MessageDocumentRepository messageDocumentRepository;
+	private ProjectRepository projectRepository;
+	private ProjectMembershipService projectMembershipService;
+	private MessageWriteBuffer messageWriteBuffer;
+	private PushEventHub pushEventHub;
+	private MessageServiceImpl messageService;
+
+	@BeforeEach
+	void setUp() {
+		messageDocumentRepository = mock(MessageDocumentRepository.class);
+		projectRepository = mock(ProjectRepository.class);
+		projectMembershipService = mock(ProjectMembershipService.class);
+		messageWriteBuffer = mock(MessageWriteBuffer.class);
+		pushEventHub = mock(PushEventHub.class);
+		messageService = new MessageServiceImpl(messageDocumentRepository, pushEventHub, projectRepository,
+				projectMembershipService, messageWriteBuffer);
+
+		when(projectRepository.existsById(PROJECT_ID)).thenReturn(true);
+		when(projectMembershipService.isMember(PROJECT_ID, MEMBER_ID)).thenReturn(true);
+	}
+
+	@Test
+	void nonMembersCannotPostToAProject() {
+		assertThrows(GeneralException.class, () -> messageService.addMessage(message("hello"), user(300L)));
+
+		verifyNoInteractions(messageWriteBuffer, pushEventHub);
+	}
+
+	@Test
+	void aBufferedMessageIsPushedToTheProjectOnceWritten() {
+		CompletableFuture<Void> written = new CompletableFuture<>();
+		when(messageWriteBuffer.enqueue(any(), any())).thenReturn(written);
+
+		messageService.addMessage(message("hello"), user(MEMBER_ID)).join();
+		verify(pushEventHub, never()).publish(any());
+		written.complete(null);
+
+		ArgumentCaptor<PushEvent> event = ArgumentCaptor.forClass(PushEvent.class);
+		verify(pushEventHub).publish(event.capture());
+		assertEquals("message.created", event.getValue().type());
+		assertEquals(PROJECT_ID, event.getValue().projectId());
+		assertEquals("hello", ((Map<?, ?>) event.getValue().data()).get("message"));
+	}
+
+	@Test
+	void theSenderHearsWhenABufferedMessageIsLost() {
+		when(messageWriteBuffer.enqueue(any(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("write failed")));
+
+		messageService.addMessage(message("hello"), user(MEMBER_ID)).join();
+
+		ArgumentCaptor<PushEvent> event = ArgumentCaptor.forClass(PushEvent.class);
+		verify(pushEventHub).publish(event.capture());
+		assertEquals("message.failed", event.getValue().type());
+		assertEquals(Set.of(MEMBER_ID), event.getValue().userIds());
+	}
+
+	@Test
+	void blankMessagesAreRejected() {
+		assertThrows(GeneralException.class, () -> messageService.addMessage(message(" "), user(MEMBER_ID)));
+
+		verifyNoInteractions(messageWriteBuffer);
+	}
+
+	@Test
+	void historyPagesWalkBackFromTheLastMessagesPosition() {
+		List<MessageDTO> newest = messages(0, 3);
+		when(messageDocumentRepository.findNewestFirst(PROJECT_ID, null, null, 3))
+				.thenReturn(CompletableFuture.completedFuture(newest));
+
+		CursorPage<MessageDTO> first = messageService.getProjectMessages(PROJECT_ID, null, 2, user(MEMBER_ID)).join();
+
+		assertEquals(List.of("m0", "m1"), first.getContent().stream().map(MessageDTO::getMessageId).toList());
+		TimestampCursor next = TimestampCursor.decode(first.getNextCursor(), "message");
+		assertEquals(new TimestampCursor(newest.get(1).getTimestamp(), "m1"), next);
+
+		when(messageDocumentRepository.findNewestFirst(PROJECT_ID, next.timestamp(), "m1", 3))
+				.thenReturn(CompletableFuture.completedFuture(messages(2, 1)));
+		CursorPage<MessageDTO> last = messageService.getProjectMessages(PROJECT_ID, first.getNextCursor(), 2,
+				user(MEMBER_ID)).join();
+
+		assertEquals(List.of("m2"), last.getContent().stream().map(MessageDTO::getMessageId).toList());
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void nonMembersCannotReadTheHistory() {
+		assertThrows(GeneralException.class, () -> messageService.getProjectMessages(PROJECT_ID, null, 2, user(300L)));
+	}
+
+	private static List<MessageDTO> messages(int from, int count) {
+		List<MessageDTO> messages = new ArrayList<>();
+		for (int i = from; i < from + count; i++)
+			messages.add(new MessageDTO("m" + i, PROJECT_ID, MEMBER_ID, "text " + i,
+					Timestamp.ofTimeSecondsAndNanos(1_700_000_000L - i, 500)));
+		return messages;
+	}
+
+	private static Message message(String text) {
+		Message message = new Message();
+		message.setProjectId(PROJECT_ID);
+		message.setMessage(text);
+		return message;
+	}
+
+	private static User user(long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,124 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.ProjectJoinRequest;
+import com.github.oauth.model.User;
+import com.github.oauth.repository.JoinRequestDocumentRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
+import com.github.oauth.repository.UserRepository;
+import com.github.oauth.service.ClusterIndexSync;
+import com.github.oauth.service.GitHubService;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.PushEventHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceImplTest {
+
+	private static final long PROJECT_ID = 1L;
+	private static final long CREATOR_ID = 100L;
+	private static final long REQUESTER_ID = 200L;
+
+	private ProjectRepository projectRepository;
+	private UserRepository userRepository;
+	private ProjectMembershipService projectMembershipService;
+	private JoinRequestDocumentRepository joinRequestDocumentRepository;
+	private GitHubService githubService;
+	private NotificationServiceImpl notificationService;
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		userRepository = mock(UserRepository.class);
+		projectMembershipService = mock(ProjectMembershipService.class);
+		joinRequestDocumentRepository = mock(JoinRequestDocumentRepository.class);
+		githubService = mock(GitHubService.class);
+		notificationService = new NotificationServiceImpl(joinRequestDocumentRepository, userRepository,
+				projectRepository, githubService, mock(ProjectRecommendationService.class), projectMembershipService,
+				mock(ClusterIndexSync.class), mock(PushEventHub.class));
+
+		ProjectHeader header = mock(ProjectHeader.class);
+		when(header.getCreatorId()).thenReturn(CREATOR_ID);
+		when(header.getVersion()).thenReturn(7L);
+		when(header.getProjectName()).thenReturn("Chat Server");
+		when(projectRepository.findHeaderByProjectId(PROJECT_ID)).thenReturn(Optional.of(header));
+		when(userRepository.findLoginById(REQUESTER_ID)).thenReturn(Optional.of("octocat"));
+		when(joinRequestDocumentRepository.updateStatus(any(), any()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+	}
+
+	@Test
+	void acceptingInsertsOneJoinRowAgainstTheHeaderVersion() {
+		String result = notificationService.updateRequest(request("ACCEPTED"), user(CREATOR_ID));
+
+		assertEquals("User successfully added to project", result);
+		verify(projectMembershipService).addMembers(PROJECT_ID, 7L, List.of(REQUESTER_ID));
+		verify(githubService).addCollaborator("chat-server", "octocat");
+		verify(joinRequestDocumentRepository).updateStatus(REQUESTER_ID + "_" + PROJECT_ID, "ACCEPTED");
+		// Reads only the projections, never the full Project or User entities
+		verify(projectRepository, never()).findById(anyLong());
+		verify(userRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void rejectingOnlyRecordsTheDecision() {
+		notificationService.updateRequest(request("REJECTED"), user(CREATOR_ID));
+
+		verify(projectMembershipService, never()).addMembers(anyLong(), anyLong(), anyCollection());
+		verify(joinRequestDocumentRepository).updateStatus(REQUESTER_ID + "_" + PROJECT_ID, "REJECTED");
+	}
+
+	@Test
+	void onlyTheCreatorCanDecide() {
+		assertEquals("You are not the creator of the project",
+				notificationService.updateRequest(request("ACCEPTED"), user(REQUESTER_ID)));
+		verify(projectMembershipService, never()).addMembers(anyLong(), anyLong(), anyCollection());
+	}
+
+	@Test
+	void existingMembersAreNotAddedAgain() {
+		when(projectMembershipService.isMember(PROJECT_ID, REQUESTER_ID)).thenReturn(true);
+
+		assertEquals("User is already a member of the project",
+				notificationService.updateRequest(request("ACCEPTED"), user(CREATOR_ID)));
+		verify(projectMembershipService, never()).addMembers(anyLong(), anyLong(), anyCollection());
+	}
+
+	@Test
+	void missingProjectOrRequesterIsNotFound() {
+		when(userRepository.findLoginById(REQUESTER_ID)).thenReturn(Optional.empty());
+		assertThrows(ResourceNotFound.class,
+				() -> notificationService.updateRequest(request("ACCEPTED"), user(CREATOR_ID)));
+
+		when(projectRepository.findHeaderByProjectId(PROJECT_ID)).thenReturn(Optional.empty());
+		assertThrows(ResourceNotFound.class,
+				() -> notificationService.updateRequest(request("ACCEPTED"), user(CREATOR_ID)));
+	}
+
+	private static ProjectJoinRequest request(String status) {
+		return new ProjectJoinRequest(PROJECT_ID, status, REQUESTER_ID, new Date());
+	}
+
+	private static User user(long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,129 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.config.InMemorySharedCacheTier;
+import com.github.oauth.config.TwoLevelCacheManager;
+import com.github.oauth.repository.ProjectJoinTableRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.service.ProjectMembershipService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// A Spring context with the same cache manager as CacheConfig, so the @Cacheable/@CacheEvict wiring is exercised
+@SpringJUnitConfig
+class ProjectMembershipServiceImplTest {
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new TransactionAwareCacheManagerProxy(new TwoLevelCacheManager(
+					new InMemorySharedCacheTier(1000, Duration.ofMinutes(10)), 1000, Duration.ofMinutes(1)));
+		}
+
+		@Bean
+		ProjectRepository projectRepository() {
+			return mock(ProjectRepository.class);
+		}
+
+		@Bean
+		ProjectJoinTableRepository projectJoinTableRepository() {
+			return mock(ProjectJoinTableRepository.class);
+		}
+
+		@Bean
+		ProjectMembershipServiceImpl projectMembershipService(ProjectRepository projectRepository,
+				ProjectJoinTableRepository projectJoinTableRepository, CacheManager cacheManager) {
+			return new ProjectMembershipServiceImpl(projectRepository, projectJoinTableRepository, cacheManager);
+		}
+	}
+
+	@Autowired
+	private ProjectMembershipService membershipService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private ProjectJoinTableRepository projectJoinTableRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		cacheManager.getCache(ProjectMembershipService.CACHE_NAME).clear();
+		reset(projectRepository, projectJoinTableRepository);
+		when(projectRepository.countMembership(1L, 10L)).thenReturn(1L);
+	}
+
+	@Test
+	void repeatedChecksHitTheCacheNotTheDatabase() {
+		assertTrue(membershipService.isMember(1L, 10L));
+		assertTrue(membershipService.isMember(1L, 10L));
+		assertFalse(membershipService.isMember(1L, 11L));
+
+		verify(projectRepository, times(1)).countMembership(1L, 10L);
+		verify(projectRepository, times(1)).countMembership(1L, 11L);
+	}
+
+	@Test
+	void addingMembersBumpsTheVersionFirstAndEvictsOnlyTheirEntries() {
+		assertFalse(membershipService.isMember(1L, 11L));
+		assertTrue(membershipService.isMember(1L, 10L));
+		when(projectRepository.countMembership(1L, 11L)).thenReturn(1L);
+		clearInvocations(projectRepository);
+
+		membershipService.addMembers(1L, 3L, List.of(11L));
+
+		InOrder writes = inOrder(projectJoinTableRepository);
+		writes.verify(projectJoinTableRepository).bumpVersion(1L, 3L);
+		writes.verify(projectJoinTableRepository).insertMembers(1L, List.of(11L));
+		assertTrue(membershipService.isMember(1L, 11L));
+		assertTrue(membershipService.isMember(1L, 10L));
+		verify(projectRepository).countMembership(1L, 11L);
+		verify(projectRepository, never()).countMembership(1L, 10L);
+	}
+
+	@Test
+	void addingNobodyWritesNothing() {
+		membershipService.addMembers(1L, 3L, List.of());
+
+		verifyNoInteractions(projectJoinTableRepository);
+	}
+
+	@Test
+	void evictingAProjectForcesFreshChecks() {
+		membershipService.isMember(1L, 10L);
+
+		membershipService.evictProject(1L);
+		membershipService.isMember(1L, 10L);
+
+		verify(projectRepository, times(2)).countMembership(anyLong(), anyLong());
+	}
+}
@@ -0,0 +1,434 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.Project;
+import com.github.oauth.model.ProjectStatus;
+import com.github.oauth.model.Tech;
+import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.ProjectDTO;
+import com.github.oauth.payload.TechStackPatchDTO;
+import com.github.oauth.payload.UserDTO;
+import com.github.oauth.repository.ProjectJoinTableRepository;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
+import com.github.oauth.repository.ProjectRepository.ProjectMatch;
+import com.github.oauth.repository.ProjectRepository.ProjectMember;
+import com.github.oauth.service.ClusterIndexSync;
+import com.github.oauth.service.GitHubService;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.ProjectSearchIndex;
+import com.github.oauth.service.ProjectSearchIndex.Hit;
+import com.github.oauth.service.ProjectSearchIndex.Hits;
+import com.github.oauth.service.ProjectTechIndex;
+import com.github.oauth.service.TechDictionary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.kohsuke.github.GHRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProjectServiceImplTest {
+
+	private static final Set<String> TECH_NAMES = Set.of("java", "spring", "mysql");
+
+	private ProjectRepository projectRepository;
+	private TechDictionary techDictionary;
+	private ProjectTechIndex projectTechIndex;
+	private ProjectSearchIndex projectSearchIndex;
+	private ProjectJoinTableRepository projectJoinTableRepository;
+	private GitHubService githubService;
+	private ProjectServiceImpl projectService;
+
+	// Match count per project ID, as project_tech_stack would group them
+	private final Map<Long, Long> matchCounts = Map.of(1L, 3L, 2L, 2L, 3L, 2L, 4L, 2L, 5L, 1L, 6L, 1L);
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		techDictionary = mock(TechDictionary.class);
+		projectTechIndex = mock(ProjectTechIndex.class);
+		projectSearchIndex = mock(ProjectSearchIndex.class);
+		projectJoinTableRepository = mock(ProjectJoinTableRepository.class);
+		githubService = mock(GitHubService.class);
+		projectService = new ProjectServiceImpl(projectRepository, new ModelMapper(), techDictionary,
+				githubService, projectTechIndex, mock(ProjectRecommendationService.class),
+				projectSearchIndex, mock(ProjectMembershipService.class), new ObjectMapper(),
+				projectJoinTableRepository, mock(ClusterIndexSync.class));
+
+		when(techDictionary.resolveIds(anyCollection())).thenReturn(Set.of(1, 2, 3));
+		when(projectRepository.findByProjectIdIn(anyCollection()))
+				.thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+						.map(ProjectServiceImplTest::project)
+						.toList());
+		// Stands in for MySQL: the same HAVING predicate and ORDER BY as the query, then the LIMIT
+		when(projectRepository.findMatchesAfter(anySet(), anyLong(), anyLong(), any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					long afterCount = invocation.getArgument(1);
+					long afterId = invocation.getArgument(2);
+					Pageable pageable = invocation.getArgument(3);
+					return matchCounts.entrySet().stream()
+							.filter(e -> e.getValue() < afterCount
+									|| (e.getValue() == afterCount && e.getKey() > afterId))
+							.sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+									.thenComparing(Map.Entry.comparingByKey()))
+							.limit(pageable.getPageSize())
+							.map(e -> match(e.getKey(), e.getValue()))
+							.toList();
+				});
+	}
+
+	@Test
+	void keysetPagesWalkEveryMatchOnceAcrossTies() {
+		List<Long> seen = new ArrayList<>();
+		List<String> cursors = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<ProjectDTO> page = projectService.searchProjectsByTechStack(TECH_NAMES, cursor, 2);
+			page.getContent().forEach(project -> seen.add(project.getProjectId()));
+			cursor = page.getNextCursor();
+			cursors.add(cursor);
+		} while (cursor != null);
+
+		// Pages break inside the run of 2-match projects, which only the projectId tiebreak keeps apart
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), seen);
+		assertEquals(3, cursors.size());
+		assertNull(cursors.get(2));
+	}
+
+	@Test
+	void firstPageStartsAboveEveryMatchCountAndFetchesOneExtra() {
+		projectService.searchProjectsByTechStack(TECH_NAMES, null, 2);
+
+		verify(projectRepository).findMatchesAfter(eq(Set.of(1, 2, 3)), eq(Long.MAX_VALUE), eq(0L),
+				eq(PageRequest.of(0, 3)));
+	}
+
+	@Test
+	void nextPageResumesStrictlyAfterTheLastReturnedMatch() {
+		String cursor = projectService.searchProjectsByTechStack(TECH_NAMES, null, 2).getNextCursor();
+		assertNotNull(cursor);
+
+		CursorPage<ProjectDTO> second = projectService.searchProjectsByTechStack(TECH_NAMES, cursor, 2);
+
+		// Project 2 ended the first page with 2 matches, so the boundary is (2, 2) and 2 is not repeated
+		verify(projectRepository).findMatchesAfter(eq(Set.of(1, 2, 3)), eq(2L), eq(2L), any(Pageable.class));
+		assertEquals(List.of(3L, 4L), second.getContent().stream().map(ProjectDTO::getProjectId).toList());
+	}
+
+	@Test
+	void pageSizeDefaultsAndIsCapped() {
+		assertEquals(ProjectServiceImpl.DEFAULT_SEARCH_PAGE_SIZE,
+				projectService.searchProjectsByTechStack(TECH_NAMES, null, 0).getSize());
+		assertEquals(ProjectServiceImpl.MAX_SEARCH_PAGE_SIZE,
+				projectService.searchProjectsByTechStack(TECH_NAMES, null, 10_000).getSize());
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		assertThrows(GeneralException.class,
+				() -> projectService.searchProjectsByTechStack(TECH_NAMES, "not base64!", 2));
+		assertThrows(GeneralException.class,
+				() -> projectService.searchProjectsByTechStack(TECH_NAMES, encode("3"), 2));
+		assertThrows(GeneralException.class,
+				() -> projectService.searchProjectsByTechStack(TECH_NAMES, encode("three:4"), 2));
+	}
+
+	@Test
+	void textSearchCursorAdvancesByOffset() {
+		when(projectSearchIndex.isReady()).thenReturn(true);
+		when(projectSearchIndex.search(eq("chat"), anySet(), anyInt(), anyInt()))
+				.thenReturn(new Hits(List.of(new Hit(1, 1f), new Hit(2, 1f)), true));
+
+		String cursor = projectService.searchProjectsByText("chat", null, null, 2).getNextCursor();
+		projectService.searchProjectsByText("chat", null, cursor, 2);
+
+		assertEquals(encode("2"), cursor);
+		verify(projectSearchIndex).search("chat", Set.of(), 2, 2);
+	}
+
+	@Test
+	void textSearchStopsOfferingPagesPastTheOffsetCap() {
+		int cap = ProjectServiceImpl.MAX_TEXT_SEARCH_OFFSET;
+		when(projectSearchIndex.isReady()).thenReturn(true);
+		when(projectSearchIndex.search(eq("chat"), anySet(), anyInt(), anyInt()))
+				.thenReturn(new Hits(List.of(new Hit(1, 1f)), true));
+
+		// The page ending at the cap gets a cursor to it, the page starting there gets none
+		assertEquals(encode(Integer.toString(cap)),
+				projectService.searchProjectsByText("chat", null, encode(Integer.toString(cap - 20)), 20)
+						.getNextCursor());
+		assertNull(projectService.searchProjectsByText("chat", null, encode(Integer.toString(cap)), 20)
+				.getNextCursor());
+		assertThrows(GeneralException.class,
+				() -> projectService.searchProjectsByText("chat", null, encode(Integer.toString(cap + 1)), 20));
+		assertThrows(GeneralException.class,
+				() -> projectService.searchProjectsByText("chat", null, encode("-1"), 20));
+	}
+
+	@Test
+	void textSearchNeedsAQueryAndABuiltIndex() {
+		assertThrows(GeneralException.class, () -> projectService.searchProjectsByText(" ", null, null, 20));
+		assertThrows(GeneralException.class, () -> projectService.searchProjectsByText("chat", null, null, 20));
+	}
+
+	@Test
+	void membersPageMapsAggregatedRolesAndTechs() {
+		List<ProjectMember> members = List.of(
+				member(5L, "[\"ROLE_USER\", \"ROLE_ADMIN\"]", "[\"java\"]"), member(9L, null, null));
+		when(projectRepository.existsById(1L)).thenReturn(true);
+		when(projectRepository.findMembersAfter(1L, 0L, 3)).thenReturn(members);
+
+		CursorPage<UserDTO> page = projectService.getProjectMembers(1L, null, 2);
+
+		assertEquals(List.of(5L, 9L), page.getContent().stream().map(UserDTO::getId).toList());
+		assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), page.getContent().get(0).getRoles());
+		assertEquals(Set.of("java"), page.getContent().get(0).getTechStack());
+		// A member with no roles or techs comes back with empty sets rather than null
+		assertEquals(Set.of(), page.getContent().get(1).getRoles());
+		assertEquals(Set.of(), page.getContent().get(1).getTechStack());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void membersCursorResumesAfterTheLastUserId() {
+		List<ProjectMember> members = List.of(member(5L, null, null), member(9L, null, null), member(12L, null, null));
+		when(projectRepository.existsById(1L)).thenReturn(true);
+		when(projectRepository.findMembersAfter(1L, 0L, 3)).thenReturn(members);
+
+		String cursor = projectService.getProjectMembers(1L, null, 2).getNextCursor();
+		projectService.getProjectMembers(1L, cursor, 2);
+
+		assertEquals(encode("9"), cursor);
+		verify(projectRepository).findMembersAfter(1L, 9L, 3);
+	}
+
+	@Test
+	void membersOfAMissingProjectOrWithABadCursorAreRejected() {
+		assertThrows(ResourceNotFound.class, () -> projectService.getProjectMembers(1L, null, 2));
+
+		when(projectRepository.existsById(1L)).thenReturn(true);
+		assertThrows(GeneralException.class, () -> projectService.getProjectMembers(1L, encode("nine"), 2));
+	}
+
+	@Test
+	void updateAgainstAnOlderVersionIsRejected() {
+		Project stored = project(1L);
+		stored.setVersion(5L);
+		when(projectRepository.findById(1L)).thenReturn(Optional.of(stored));
+		ProjectDTO edit = new ProjectDTO("renamed", "", Set.of());
+		edit.setProjectId(1L);
+		edit.setVersion(4L);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> projectService.updateProject(edit, creator()));
+		verify(projectRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void techStackPatchWritesOnlyTheDeltaAgainstTheClientsVersion() {
+		stubHeader(5L);
+		when(techDictionary.resolveIds(Set.of("go"))).thenReturn(Set.of(4));
+		when(techDictionary.resolveIds(Set.of("java"))).thenReturn(Set.of(1));
+		when(projectRepository.findTechStackByProjectId(1L)).thenReturn(List.of(new Tech(4, "go")));
+
+		ProjectDTO result = projectService.updateTechStack(1L,
+				new TechStackPatchDTO(Set.of("go"), Set.of("java"), 5L), creator());
+
+		InOrder writes = inOrder(projectJoinTableRepository);
+		writes.verify(projectJoinTableRepository).bumpVersion(1L, 5L);
+		writes.verify(projectJoinTableRepository).deleteTechs(1L, Set.of(1));
+		writes.verify(projectJoinTableRepository).insertTechs(1L, Set.of(4));
+		assertEquals(6L, result.getVersion());
+		assertEquals(Set.of("go"), result.getTechStack());
+	}
+
+	@Test
+	void techStackPatchWithoutAVersionChecksAgainstTheVersionItRead() {
+		stubHeader(5L);
+		when(techDictionary.resolveIds(Set.of("go"))).thenReturn(Set.of(4));
+
+		projectService.updateTechStack(1L, new TechStackPatchDTO(Set.of("go"), null, null), creator());
+
+		verify(projectJoinTableRepository).bumpVersion(1L, 5L);
+	}
+
+	@Test
+	void emptyTechStackPatchWritesNothingAndKeepsTheVersion() {
+		stubHeader(5L);
+
+		ProjectDTO result = projectService.updateTechStack(1L, new TechStackPatchDTO(null, null, 5L), creator());
+
+		verifyNoInteractions(projectJoinTableRepository);
+		assertEquals(5L, result.getVersion());
+	}
+
+	@Test
+	void techStackPatchIsRejectedForOthersAndForContradictions() {
+		stubHeader(5L);
+		when(techDictionary.resolveIds(Set.of("go"))).thenReturn(Set.of(4));
+
+		User stranger = new User();
+		stranger.setId(999L);
+		assertThrows(GeneralException.class, () -> projectService.updateTechStack(1L,
+				new TechStackPatchDTO(Set.of("go"), null, 5L), stranger));
+		assertThrows(GeneralException.class, () -> projectService.updateTechStack(1L,
+				new TechStackPatchDTO(Set.of("go"), Set.of("go"), 5L), creator()));
+		verifyNoInteractions(projectJoinTableRepository);
+	}
+
+	@Test
+	void createSavesTheProjectAfterTheRepositoryExists() throws Exception {
+		GHRepository repository = stubRepository();
+		when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> {
+			Project saved = invocation.getArgument(0);
+			saved.setProjectId(1L);
+			return saved;
+		});
+		when(techDictionary.resolve(Set.of("java"))).thenReturn(Set.of(new Tech(1, "java")));
+
+		ProjectDTO created = projectService.createNewProject(new ProjectDTO("Chat Server", "chat", Set.of("java")),
+				creator());
+
+		InOrder calls = inOrder(githubService, projectRepository);
+		calls.verify(githubService).createRepository("chat-server", "chat", true);
+		calls.verify(projectRepository).save(any(Project.class));
+		assertEquals("https://github.com/octocat/chat-server", created.getGithubRepository());
+		verify(githubService, never()).deleteRepository(any(), any());
+		verify(projectTechIndex).index(1L, Set.of(1), true);
+	}
+
+	@Test
+	void repositoryIsDeletedWhenTheProjectCannotBeSaved() throws Exception {
+		stubRepository();
+		when(projectRepository.save(any(Project.class))).thenThrow(new IllegalStateException("duplicate name"));
+		User creator = creator();
+		creator.setAccessToken("token");
+
+		assertThrows(RuntimeException.class,
+				() -> projectService.createNewProject(new ProjectDTO("Chat Server", "chat", null), creator));
+
+		verify(githubService).deleteRepository("chat-server", "token");
+	}
+
+	@Test
+	void failedCleanupStillReportsTheSaveFailure() throws Exception {
+		stubRepository();
+		when(projectRepository.save(any(Project.class))).thenThrow(new IllegalStateException("duplicate name"));
+		doThrow(new RuntimeException("GitHub down")).when(githubService).deleteRepository(any(), any());
+
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> projectService.createNewProject(new ProjectDTO("Chat Server", "chat", null), creator()));
+
+		assertEquals("duplicate name", error.getCause().getMessage());
+	}
+
+	@Test
+	void unknownTechFailsBeforeAnyRepositoryIsCreated() {
+		when(techDictionary.resolve(Set.of("cobol++"))).thenThrow(new ResourceNotFound("Tech not found cobol++"));
+
+		assertThrows(RuntimeException.class, () -> projectService.createNewProject(
+				new ProjectDTO("Chat Server", "chat", Set.of("cobol++")), creator()));
+
+		verifyNoInteractions(githubService);
+		verify(projectRepository, never()).save(any());
+	}
+
+	private GHRepository stubRepository() throws Exception {
+		GHRepository repository = mock(GHRepository.class);
+		when(repository.getName()).thenReturn("chat-server");
+		when(repository.getHtmlUrl()).thenReturn(URI.create("https://github.com/octocat/chat-server").toURL());
+		when(githubService.createRepository(any(), any(), anyBoolean())).thenReturn(repository);
+		return repository;
+	}
+
+	private void stubHeader(long version) {
+		ProjectHeader header = mock(ProjectHeader.class);
+		when(header.getProjectId()).thenReturn(1L);
+		when(header.getCreatorId()).thenReturn(100L);
+		when(header.getVersion()).thenReturn(version);
+		when(header.getProjectStatus()).thenReturn(ProjectStatus.OPEN);
+		when(projectRepository.findHeaderByProjectId(1L)).thenReturn(Optional.of(header));
+	}
+
+	private static User creator() {
+		User creator = new User();
+		creator.setId(100L);
+		return creator;
+	}
+
+	private static ProjectMember member(long id, String roles, String techStack) {
+		ProjectMember member = mock(ProjectMember.class);
+		when(member.getId()).thenReturn(id);
+		when(member.getLogin()).thenReturn("user" + id);
+		when(member.getRoles()).thenReturn(roles);
+		when(member.getTechStack()).thenReturn(techStack);
+		return member;
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+	}
+
+	private static ProjectMatch match(long projectId, long matchCount) {
+		return new ProjectMatch() {
+			@Override
+			public Long getProjectId() {
+				return projectId;
+			}
+
+			@Override
+			public Long getMatchCount() {
+				return matchCount;
+			}
+		};
+	}
+
+	static Project project(long projectId) {
+		User creator = new User();
+		creator.setId(100L);
+		Project project = new Project();
+		project.setProjectId(projectId);
+		project.setProjectName("project-" + projectId);
+		project.setProjectStatus(ProjectStatus.OPEN);
+		project.setCreator(creator);
+		project.setTechStack(new HashSet<>(Set.of(new Tech(1, "java"))));
+		return project;
+	}
+}
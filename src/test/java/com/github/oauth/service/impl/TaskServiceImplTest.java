@@ -0,0 +1,281 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.exception.GeneralException;
+import com.github.oauth.exception.ResourceNotFound;
+import com.github.oauth.model.Task;
+import com.github.oauth.model.TaskStatus;
+import com.github.oauth.model.User;
+import com.github.oauth.payload.CursorPage;
+import com.github.oauth.payload.TimestampCursor;
+import com.github.oauth.repository.ProjectRepository;
+import com.github.oauth.repository.ProjectRepository.ProjectHeader;
+import com.github.oauth.repository.TaskDocumentRepository;
+import com.github.oauth.repository.TaskDocumentRepository.StatusChange;
+import com.github.oauth.repository.TaskDocumentRepository.VersionedTask;
+import com.github.oauth.repository.UserRepository;
+import com.github.oauth.service.ProjectMembershipService;
+import com.github.oauth.service.PushEventHub;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskServiceImplTest {
+
+	private static final long PROJECT_ID = 1L;
+	private static final long CREATOR_ID = 100L;
+	private static final long MEMBER_ID = 200L;
+
+	private ProjectRepository projectRepository;
+	private ProjectMembershipService projectMembershipService;
+	private TaskDocumentRepository taskDocumentRepository;
+	private TaskServiceImpl taskService;
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		projectMembershipService = mock(ProjectMembershipService.class);
+		taskDocumentRepository = mock(TaskDocumentRepository.class);
+		taskService = new TaskServiceImpl(mock(UserRepository.class), projectRepository, projectMembershipService,
+				taskDocumentRepository, Runnable::run, Duration.ofMinutes(5), mock(PushEventHub.class));
+
+		when(projectRepository.existsById(PROJECT_ID)).thenReturn(true);
+		when(projectMembershipService.isMember(PROJECT_ID, MEMBER_ID)).thenReturn(true);
+		ProjectHeader header = mock(ProjectHeader.class);
+		when(header.getCreatorId()).thenReturn(CREATOR_ID);
+		when(projectRepository.findHeaderByProjectId(PROJECT_ID)).thenReturn(Optional.of(header));
+	}
+
+	@Test
+	void aForgedAssigneeInTheBodyDoesNotLetOthersMoveTheTask() {
+		AtomicReference<StatusChange> written = stored(storedTask(TaskStatus.REQUESTED));
+		Task body = body(TaskStatus.PENDING);
+		body.setAssignedTo(CREATOR_ID);
+
+		CompletionException error = assertThrows(CompletionException.class,
+				() -> taskService.updateTaskStatus(body, user(CREATOR_ID)).join());
+
+		assertInstanceOf(GeneralException.class, error.getCause());
+		assertNull(written.get());
+	}
+
+	@Test
+	void theStoredAssigneeMovesTheTaskWithoutAnAssigneeInTheBody() {
+		AtomicReference<StatusChange> written = stored(storedTask(TaskStatus.REQUESTED));
+
+		taskService.updateTaskStatus(body(TaskStatus.PENDING), user(MEMBER_ID)).join();
+
+		assertEquals(TaskStatus.PENDING, written.get().to());
+	}
+
+	@Test
+	void aForgedProjectInTheBodyDoesNotLetItsCreatorGiveTheVerdict() {
+		AtomicReference<StatusChange> written = stored(storedTask(TaskStatus.REQUEST_COMPLETE));
+		long otherCreatorId = 300L;
+		ProjectHeader otherProject = mock(ProjectHeader.class);
+		when(otherProject.getCreatorId()).thenReturn(otherCreatorId);
+		when(projectRepository.findHeaderByProjectId(2L)).thenReturn(Optional.of(otherProject));
+		Task body = body(TaskStatus.COMPLETED);
+		body.setProjectId(2L);
+
+		CompletionException error = assertThrows(CompletionException.class,
+				() -> taskService.updateTaskCompletion(body, user(otherCreatorId)).join());
+
+		assertInstanceOf(GeneralException.class, error.getCause());
+		assertNull(written.get());
+		verify(projectRepository, never()).findHeaderByProjectId(2L);
+	}
+
+	@Test
+	void theStoredProjectsCreatorGivesTheVerdict() {
+		AtomicReference<StatusChange> written = stored(storedTask(TaskStatus.REQUEST_COMPLETE));
+
+		taskService.updateTaskCompletion(body(TaskStatus.COMPLETED), user(CREATOR_ID)).join();
+
+		assertEquals(TaskStatus.COMPLETED, written.get().to());
+	}
+
+	@Test
+	void anAssigneeCannotGiveAVerdictThroughTheStatusEndpoint() {
+		stored(storedTask(TaskStatus.REQUEST_COMPLETE));
+
+		assertThrows(GeneralException.class,
+				() -> taskService.updateTaskStatus(body(TaskStatus.COMPLETED), user(MEMBER_ID)));
+		verify(taskDocumentRepository, never()).transition(any(), anyLong(), any());
+	}
+
+	@Test
+	void aFullPageCarriesTheLastTasksPositionAsCursor() {
+		List<Task> found = tasks(4);
+		when(taskDocumentRepository.findNewestFirst("projectId", PROJECT_ID, null, null, null, 4))
+				.thenReturn(CompletableFuture.completedFuture(found));
+
+		CursorPage<Task> page = taskService.getProjectTasks(PROJECT_ID, null, null, 3, user(MEMBER_ID)).join();
+
+		assertEquals(List.of("t0", "t1", "t2"), page.getContent().stream().map(Task::getId).toList());
+		assertEquals(3, page.getSize());
+		TimestampCursor next = TimestampCursor.decode(page.getNextCursor(), "task");
+		assertEquals("t2", next.id());
+		assertEquals(found.get(2).getCreatedAt(), next.timestamp());
+	}
+
+	@Test
+	void theCursorResumesAfterThatPosition() {
+		Timestamp createdAt = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 5);
+		String cursor = new TimestampCursor(createdAt, "t2").encode();
+		when(taskDocumentRepository.findNewestFirst("projectId", PROJECT_ID, null, createdAt, "t2", 4))
+				.thenReturn(CompletableFuture.completedFuture(tasks(1)));
+
+		CursorPage<Task> page = taskService.getProjectTasks(PROJECT_ID, "", cursor, 3, user(MEMBER_ID)).join();
+
+		assertEquals(1, page.getContent().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void pageSizeDefaultsAndIsCapped() {
+		when(taskDocumentRepository.findNewestFirst(any(), any(), any(), any(), any(), anyInt()))
+				.thenReturn(CompletableFuture.completedFuture(List.of()));
+
+		taskService.getAssignedTasks(user(MEMBER_ID), null, null, 0).join();
+		taskService.getAssignedTasks(user(MEMBER_ID), null, null, 10_000).join();
+
+		verify(taskDocumentRepository).findNewestFirst("assignedTo", MEMBER_ID, null, null, null, 21);
+		verify(taskDocumentRepository).findNewestFirst("assignedTo", MEMBER_ID, null, null, null, 101);
+	}
+
+	@Test
+	void theStatusFilterIsParsedAndUnknownStatusesRejected() {
+		when(taskDocumentRepository.findNewestFirst(any(), any(), any(), any(), any(), anyInt()))
+				.thenReturn(CompletableFuture.completedFuture(List.of()));
+
+		taskService.getAssignedTasks(user(MEMBER_ID), "REQUEST_COMPLETE", null, 5).join();
+
+		verify(taskDocumentRepository).findNewestFirst(eq("assignedTo"), eq(MEMBER_ID),
+				eq(TaskStatus.REQUEST_COMPLETE), isNull(), isNull(), eq(6));
+		assertThrows(GeneralException.class, () -> taskService.getAssignedTasks(user(MEMBER_ID), "DONE", null, 5));
+		assertThrows(GeneralException.class, () -> taskService.getAssignedTasks(user(MEMBER_ID), null, "%%%", 5));
+	}
+
+	@Test
+	void onlyMembersListAProjectsTasks() {
+		assertThrows(GeneralException.class,
+				() -> taskService.getProjectTasks(PROJECT_ID, null, null, 5, user(CREATOR_ID + 1)));
+		when(projectRepository.existsById(2L)).thenReturn(false);
+		assertThrows(ResourceNotFound.class, () -> taskService.getProjectTasks(2L, null, null, 5, user(MEMBER_ID)));
+
+		verify(taskDocumentRepository, never()).findNewestFirst(any(), any(), any(), any(), any(), anyInt());
+	}
+
+	@Test
+	void pollVerdictsGoOutInBulkAndOnlyConflictsAreRetriedOneByOne() {
+		Task stale = storedTask(TaskStatus.REQUEST_COMPLETE);
+		Task fresh = storedTask(TaskStatus.REQUEST_COMPLETE);
+		fresh.setId("task-2");
+		Task open = storedTask(TaskStatus.REQUEST_COMPLETE);
+		open.setId("task-3");
+		Task recentlyChecked = storedTask(TaskStatus.REQUEST_COMPLETE);
+		recentlyChecked.setId("task-4");
+		recentlyChecked.setLastChecked(Timestamp.now());
+		AtomicReference<StatusChange> retried = stored(stale);
+		when(taskDocumentRepository.applyTransitions(any(), any()))
+				.thenReturn(CompletableFuture.completedFuture(List.of("task-1")));
+		when(taskDocumentRepository.updateAll(any(), any(), any()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		taskService.recordPollResults(
+				List.of(versioned(stale), versioned(fresh), versioned(open), versioned(recentlyChecked)),
+				Map.of("task-1", TaskStatus.COMPLETED, "task-2", TaskStatus.REQUEST_REJECTED));
+
+		verify(taskDocumentRepository).applyTransitions(any(), isNull());
+		assertEquals(TaskStatus.COMPLETED, retried.get().to());
+		verify(taskDocumentRepository, never()).transition(eq("task-2"), any(), any());
+		verify(taskDocumentRepository).updateAll(eq(List.of("task-3")), eq("lastChecked"), any());
+	}
+
+	private static VersionedTask versioned(Task task) {
+		return new VersionedTask(task, Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 0));
+	}
+
+	/**
+	 * Makes transition() run the service's callback against {@code stored}, the way the
+	 * repository does after its read; the returned reference holds the change it would write.
+	 */
+	@SuppressWarnings("unchecked")
+	private AtomicReference<StatusChange> stored(Task stored) {
+		AtomicReference<StatusChange> written = new AtomicReference<>();
+		when(taskDocumentRepository.transition(eq(stored.getId()), any(), any())).thenAnswer(invocation ->
+				apply(invocation.getArgument(2, Function.class), stored, written));
+		when(taskDocumentRepository.transition(eq(stored.getId()), any(), any(), any())).thenAnswer(invocation ->
+				apply(invocation.getArgument(2, Function.class), stored, written));
+		return written;
+	}
+
+	private static CompletableFuture<Task> apply(Function<Task, StatusChange> change, Task stored,
+			AtomicReference<StatusChange> written) {
+		try {
+			written.set(change.apply(stored));
+			return CompletableFuture.completedFuture(stored);
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private static Task storedTask(TaskStatus status) {
+		Task task = new Task();
+		task.setId("task-1");
+		task.setProjectId(PROJECT_ID);
+		task.setAssignedTo(MEMBER_ID);
+		task.setStatus(status);
+		return task;
+	}
+
+	// Only what a client has to send: the ID and the new status
+	private static Task body(TaskStatus status) {
+		Task task = new Task();
+		task.setId("task-1");
+		task.setStatus(status);
+		return task;
+	}
+
+	private static List<Task> tasks(int count) {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Task task = new Task();
+			task.setId("t" + i);
+			task.setProjectId(PROJECT_ID);
+			task.setCreatedAt(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L - i, 0));
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	private static User user(long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+}
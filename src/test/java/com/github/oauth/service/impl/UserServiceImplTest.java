@@ -0,0 +1,81 @@
+package com.github.oauth.service.impl;
+
+import com.github.oauth.config.EntityCacheInvalidator;
+import com.github.oauth.model.User;
+import com.github.oauth.repository.RoleRepository;
+import com.github.oauth.repository.UserRepository;
+import com.github.oauth.service.ClusterIndexSync;
+import com.github.oauth.service.ProjectRecommendationService;
+import com.github.oauth.service.TechDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+	private UserRepository userRepository;
+	private EntityCacheInvalidator entityCacheInvalidator;
+	private UserServiceImpl userService;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		entityCacheInvalidator = mock(EntityCacheInvalidator.class);
+		userService = new UserServiceImpl(userRepository, mock(RoleRepository.class), mock(TechDictionary.class),
+				new ModelMapper(), mock(ProjectRecommendationService.class), mock(ClusterIndexSync.class),
+				entityCacheInvalidator);
+
+		User user = new User();
+		user.setId(42L);
+		user.setGithubId("9001");
+		when(userRepository.findByGithubId("9001")).thenReturn(Optional.of(user));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	void emailChangesWriteOneColumnInsteadOfSavingTheUser() {
+		userService.updateEmail(authentication(), "new@example.com");
+
+		verify(userRepository).updateEmail(42L, "new@example.com");
+		verify(userRepository, never()).save(any());
+		verify(entityCacheInvalidator).evict(User.class, 42L);
+	}
+
+	@Test
+	void theCachedUserIsEvictedOnlyOnceTheUpdateCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		userService.updateEmail(authentication(), "new@example.com");
+
+		verify(entityCacheInvalidator, never()).evict(any(), any());
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		verify(entityCacheInvalidator).evict(User.class, 42L);
+	}
+
+	private static Authentication authentication() {
+		DefaultOAuth2User principal = new DefaultOAuth2User(List.of(), Map.of("id", 9001), "id");
+		return new OAuth2AuthenticationToken(principal, List.of(), "github");
+	}
+}